@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BreachFilter - off-heap Bloom filter of breached/common passwords
+ * Features:
+ * - Built once from a newline-delimited corpus straight into a
+ * memory-mapped filter file
+ * - Reloaded by mapping the file read-only, so startup cost does not depend
+ * on corpus size
+ * - Allocation-free membership checks for String, char[] and byte[]
+ * passwords
+ * File layout: 32-byte header (magic, version, hash count, bit count, entry
+ * count) followed by the bit array.
+ */
+final class BreachFilter {
+
+    private static final int MAGIC = 0x50574246; // "PWBF"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final long MAX_BITS = (Integer.MAX_VALUE - HEADER_SIZE) * 8L;
+    // 64 hashes already give a false-positive rate near 2^-64
+    private static final int MAX_HASHES = 64;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    // Filter consulted by generation and the strength meter, if one is loaded
+    private static volatile BreachFilter active;
+
+    private final ByteBuffer bits;
+    private final long numBits;
+    private final int numHashes;
+    private final long entries;
+
+    private BreachFilter(ByteBuffer bits, long numBits, int numHashes, long entries) {
+        this.bits = bits;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.entries = entries;
+    }
+
+    /**
+     * Thrown when every redraw of a password was flagged by the filter, as
+     * happens with tiny pools at short lengths (a corpus holding every 4-digit
+     * PIN rejects every numbers-only password of length 4). Generation fails
+     * rather than hand out a password the filter reports as breached.
+     */
+    static final class RetriesExhaustedException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        RetriesExhaustedException(int attempts) {
+            super("Every one of " + attempts + " generated passwords was in the breach filter;"
+                    + " use a longer length or more character types");
+        }
+    }
+
+    static BreachFilter active() {
+        return active;
+    }
+
+    static void setActive(BreachFilter filter) {
+        active = filter;
+    }
+
+    /** True if a filter is loaded and reports the password as (probably) breached. */
+    static boolean isBreached(CharSequence password) {
+        BreachFilter filter = active;
+        return filter != null && filter.mightContain(password);
+    }
+
+    static BreachFilter load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a breach filter file: " + file);
+            }
+            if (mapped.getInt(4) != VERSION) {
+                throw new IOException("Unsupported breach filter version " + mapped.getInt(4) + ": " + file);
+            }
+            int numHashes = mapped.getInt(8);
+            long numBits = mapped.getLong(16);
+            long entries = mapped.getLong(24);
+            if (numHashes < 1 || numHashes > MAX_HASHES || numBits < 1 || numBits > MAX_BITS || entries < 0) {
+                throw new IOException("Corrupt breach filter header (" + numHashes + " hashes, " + numBits
+                        + " bits): " + file);
+            }
+            if (channel.size() < HEADER_SIZE + (numBits + 7) / 8) {
+                throw new IOException("Truncated breach filter: " + file);
+            }
+            return new BreachFilter(slice(mapped), numBits, numHashes, entries);
+        }
+    }
+
+    /**
+     * Builds a filter for every non-empty line of {@code corpus} with the given
+     * target false-positive rate and writes it to {@code output}.
+     */
+    static BreachFilter build(Path corpus, Path output, double falsePositiveRate) throws IOException {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        try (FileChannel in = FileChannel.open(corpus, StandardOpenOption.READ)) {
+            long lines = countLines(in);
+            // Optimal sizing: m = -n ln p / (ln 2)^2, k = (m / n) ln 2
+            long numBits = Math.max(64, (long) Math.ceil(-Math.max(1, lines) * Math.log(falsePositiveRate)
+                    / (Math.log(2) * Math.log(2))));
+            if (numBits > MAX_BITS) {
+                throw new IOException("Corpus too large for a single filter file: " + lines + " entries");
+            }
+            int numHashes = (int) Math.max(1, Math.min(MAX_HASHES,
+                    Math.round((double) numBits / Math.max(1, lines) * Math.log(2))));
+            long fileSize = HEADER_SIZE + (numBits + 7) / 8;
+
+            try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer mapped = out.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(4, VERSION);
+                mapped.putInt(8, numHashes);
+                mapped.putLong(16, numBits);
+                mapped.putLong(24, lines);
+                BreachFilter filter = new BreachFilter(slice(mapped), numBits, numHashes, lines);
+                filter.addLines(in);
+                mapped.force();
+                return filter;
+            }
+        }
+    }
+
+    static int runBuild(Path corpus, Path output, double falsePositiveRate, PrintStream out) {
+        long start = System.nanoTime();
+        try {
+            BreachFilter filter = build(corpus, output, falsePositiveRate);
+            out.printf("Built breach filter of %,d entries (%,d bytes, %d hashes) in %.3f s%n",
+                    filter.entries, (filter.numBits + 7) / 8, filter.numHashes,
+                    (System.nanoTime() - start) / 1e9);
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            out.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    boolean mightContain(CharSequence password) {
+        return test(hash(password));
+    }
+
+    boolean mightContain(char[] password, int offset, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ password[i]) * 0x100000001B3L;
+        }
+        return test(h);
+    }
+
+    boolean mightContain(byte[] password, int offset, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (password[i] & 0xFF)) * 0x100000001B3L;
+        }
+        return test(h);
+    }
+
+    private void add(CharSequence password) {
+        // Kirsch-Mitzenmacher: k indexes from two hashes derived from one FNV-1a value
+        long h1 = mix(hash(password));
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numBits);
+            int index = (int) (bit >>> 3);
+            bits.put(index, (byte) (bits.get(index) | (1 << (bit & 7))));
+        }
+    }
+
+    private boolean test(long h) {
+        long h1 = mix(h);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over UTF-16 code units; byte input hashes identically for ISO-8859-1 text
+    private static long hash(CharSequence password) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < password.length(); i++) {
+            h = (h ^ password.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finaliser; spreads FNV output across all 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void addLines(FileChannel in) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            long mappedSize = Math.min(WINDOW_SIZE, size - position);
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, mappedSize);
+            int end = windowEnd(window, (int) mappedSize, position + mappedSize < size);
+            PasswordAudit.AsciiLine line = new PasswordAudit.AsciiLine(window);
+            int lineStart = 0;
+            for (int i = 0; i <= end; i++) {
+                if (i == end || window.get(i) == '\n') {
+                    int lineEnd = i;
+                    if (lineEnd > lineStart && window.get(lineEnd - 1) == '\r') {
+                        lineEnd--;
+                    }
+                    if (lineEnd > lineStart) {
+                        line.set(lineStart, lineEnd - lineStart);
+                        add(line);
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            position += end;
+        }
+    }
+
+    private static long countLines(FileChannel in) throws IOException {
+        long size = in.size();
+        long lines = 0;
+        long position = 0;
+        while (position < size) {
+            long mappedSize = Math.min(WINDOW_SIZE, size - position);
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, mappedSize);
+            for (int i = 0; i < mappedSize; i++) {
+                if (window.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            position += mappedSize;
+            if (position == size && window.get((int) mappedSize - 1) != '\n') {
+                lines++; // final line without a trailing newline
+            }
+        }
+        return lines;
+    }
+
+    // Ends a window after its last complete line unless it is the final window
+    private static int windowEnd(MappedByteBuffer window, int size, boolean more) {
+        if (more) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (window.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer mapped) {
+        return mapped.position(HEADER_SIZE).slice();
+    }
+}
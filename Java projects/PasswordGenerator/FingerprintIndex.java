@@ -0,0 +1,117 @@
+/**
+ * FingerprintIndex - compact open-addressing set of password fingerprints
+ * Features:
+ * - One primitive long[] with linear probing, sized once for the batch
+ * - Hash mode: stores full 64-bit fingerprints for streamed output, where a
+ * fingerprint match is treated as a duplicate (a collision between distinct
+ * passwords only costs one extra regeneration, never a repeated password)
+ * - Exact mode: stores a 32-bit fingerprint tag plus the password's position
+ * in an in-memory batch, and compares the passwords on a tag match
+ * An entry of 0 marks an empty slot.
+ */
+final class FingerprintIndex {
+
+    /** Compares two passwords of an in-memory batch by index. */
+    interface Equality {
+        boolean same(int a, int b);
+    }
+
+    // Maximum load factor; low enough that probe chains stay short
+    private static final double MAX_LOAD = 0.75;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final long[] table;
+    private final int mask;
+    private int size;
+    private long fingerprintCollisions;
+
+    FingerprintIndex(long expected) {
+        long wanted = (long) Math.ceil(Math.max(16, expected) / MAX_LOAD);
+        if (wanted > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many entries for one index: " + expected);
+        }
+        int capacity = Integer.highestOneBit((int) wanted - 1) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** Adds a full fingerprint; returns false if it was already present. */
+    boolean addHash(long hash) {
+        long entry = hash == 0 ? 1 : hash;
+        int slot = (int) entry & mask;
+        long current;
+        while ((current = table[slot]) != 0) {
+            if (current == entry) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, entry);
+        return true;
+    }
+
+    /**
+     * Adds password {@code index} with fingerprint {@code hash}; returns false
+     * if an identical password is already present.
+     */
+    boolean addExact(long hash, int index, Equality equality) {
+        long tag = hash & 0xFFFFFFFF00000000L;
+        int slot = (int) hash & mask;
+        long current;
+        while ((current = table[slot]) != 0) {
+            if ((current & 0xFFFFFFFF00000000L) == tag) {
+                if (equality.same((int) (current & 0xFFFFFFFFL) - 1, index)) {
+                    return false;
+                }
+                fingerprintCollisions++;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, tag | (index + 1L));
+        return true;
+    }
+
+    private void insert(int slot, long entry) {
+        if (size >= table.length * MAX_LOAD) {
+            throw new IllegalStateException("Fingerprint index is full");
+        }
+        table[slot] = entry;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Tag matches between distinct passwords that needed an exact comparison. */
+    long fingerprintCollisions() {
+        return fingerprintCollisions;
+    }
+
+    long memoryBytes() {
+        return table.length * 8L;
+    }
+
+    static long hash(char[] password, int offset, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ password[i]) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    static long hash(byte[] password, int offset, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (password[i] & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finaliser, so both the slot bits and the tag bits are well mixed
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
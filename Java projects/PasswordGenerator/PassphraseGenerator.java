@@ -0,0 +1,91 @@
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+/**
+ * PassphraseGenerator - diceware-style passphrases from a WordList
+ * Features:
+ * - Words drawn uniformly with a RandomSource and copied straight from the
+ * mapped word list
+ * - Parallel block generation into per-chunk byte buffers that are reused
+ * across blocks
+ * - Entropy of words x log2(list size) bits
+ */
+final class PassphraseGenerator {
+
+    private final WordList words;
+    private final int wordCount;
+    private final byte separator;
+
+    PassphraseGenerator(WordList words, int wordCount, char separator) {
+        if (wordCount < 1) {
+            throw new IllegalArgumentException("A passphrase needs at least one word");
+        }
+        if (separator > 0x7F) {
+            throw new IllegalArgumentException("Word separator must be an ASCII character");
+        }
+        this.words = words;
+        this.wordCount = wordCount;
+        this.separator = (byte) separator;
+    }
+
+    double entropyBits() {
+        return wordCount * words.bitsPerWord();
+    }
+
+    /** Upper bound on the bytes of one passphrase, excluding any line separator. */
+    int maxLength() {
+        return wordCount * words.maxWordLength() + wordCount - 1;
+    }
+
+    String generate() {
+        return generate(RandomSource.threadSecure());
+    }
+
+    String generate(RandomSource rng) {
+        byte[] out = new byte[maxLength()];
+        int length = fill(out, 0, rng);
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates {@code count} passphrases split across {@code chunkBuffers},
+     * each followed by {@code lineSeparator}. Chunk {@code c} holds
+     * {@code chunkLengths[c]} bytes afterwards; chunks not needed for the count
+     * are left empty. Each buffer must hold {@link #chunkCapacity()} bytes.
+     */
+    void generateBlock(byte[][] chunkBuffers, int[] chunkLengths, int count, byte lineSeparator,
+            RandomSource.Kind kind, long seed) {
+        int perChunk = PasswordEngine.CHUNK_SIZE;
+        int chunks = (count + perChunk - 1) / perChunk;
+        if (chunks > chunkBuffers.length) {
+            throw new IndexOutOfBoundsException("Not enough chunk buffers for " + count + " passphrases");
+        }
+        RandomSource[] rngs = PasswordEngine.randomSources(kind, seed, chunks);
+        IntStream.range(0, chunkBuffers.length).parallel().forEach(c -> {
+            int n = c < chunks ? Math.min(perChunk, count - c * perChunk) : 0;
+            byte[] out = chunkBuffers[c];
+            int pos = 0;
+            for (int i = 0; i < n; i++) {
+                pos += fill(out, pos, rngs[c]);
+                out[pos++] = lineSeparator;
+            }
+            chunkLengths[c] = pos;
+        });
+    }
+
+    int chunkCapacity() {
+        return PasswordEngine.CHUNK_SIZE * (maxLength() + 1);
+    }
+
+    private int fill(byte[] out, int pos, RandomSource rng) {
+        int start = pos;
+        int size = words.size();
+        for (int w = 0; w < wordCount; w++) {
+            if (w > 0) {
+                out[pos++] = separator;
+            }
+            pos += words.copyWord(rng.nextIndex(size), out, pos);
+        }
+        return pos - start;
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PasswordAudit - scores a newline-delimited password file against the
+ * strength meter bands
+ * Features:
+ * - File memory-mapped in fixed-size windows that end on line boundaries
+ * - Each window split recursively on line boundaries and scored in a
+ * fork-join pool
+ * - Weak/Moderate/Strong/Very Strong histogram using StrengthEstimator
+ * Heap use is independent of file size: only the current window is mapped
+ * and lines are scored in place without decoding to String.
+ */
+final class PasswordAudit {
+
+    // Bytes mapped at a time
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    // Ranges smaller than this are scored by a single task
+    private static final int LEAF_SIZE = 256 * 1024;
+
+    private PasswordAudit() {
+    }
+
+    /** Returns the number of passwords in each strength bucket. */
+    static long[] audit(Path file) throws IOException {
+        return audit(file, ForkJoinPool.commonPool());
+    }
+
+    static long[] audit(Path file, ForkJoinPool pool) throws IOException {
+        long[] histogram = new long[StrengthEstimator.LABELS.length];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long mapped = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                int end = (int) mapped;
+                if (position + mapped < size) {
+                    // Stop after the last complete line; a line longer than the
+                    // whole window is scored as is
+                    int lastNewline = lastNewline(window, 0, end);
+                    if (lastNewline >= 0) {
+                        end = lastNewline + 1;
+                    }
+                }
+                long[] counts = pool.invoke(new ScoreTask(window, 0, end));
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] += counts[i];
+                }
+                position += end;
+            }
+        }
+        return histogram;
+    }
+
+    static int run(Path file, PrintStream out) {
+        long start = System.nanoTime();
+        long[] histogram;
+        try {
+            histogram = audit(file);
+        } catch (IOException e) {
+            out.println("Error: " + e.getMessage());
+            return 1;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        out.printf("Audited %,d passwords in %.3f s (%,.0f passwords/s)%n",
+                total, seconds, seconds > 0 ? total / seconds : 0.0);
+        for (int i = 0; i < histogram.length; i++) {
+            out.printf("  %-12s %,15d  %6.2f%%%n", StrengthEstimator.LABELS[i], histogram[i],
+                    total > 0 ? histogram[i] * 100.0 / total : 0.0);
+        }
+        return 0;
+    }
+
+    private static int lastNewline(MappedByteBuffer buffer, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class ScoreTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedByteBuffer buffer;
+        private final int from;
+        private final int to;
+
+        ScoreTask(MappedByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > LEAF_SIZE) {
+                // Split at the first line boundary after the midpoint
+                int mid = from + (to - from) / 2;
+                while (mid < to && buffer.get(mid) != '\n') {
+                    mid++;
+                }
+                if (mid < to - 1) {
+                    ScoreTask right = new ScoreTask(buffer, mid + 1, to);
+                    right.fork();
+                    long[] left = new ScoreTask(buffer, from, mid + 1).compute();
+                    long[] counts = right.join();
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += counts[i];
+                    }
+                    return left;
+                }
+            }
+            return scoreLines();
+        }
+
+        private long[] scoreLines() {
+            long[] counts = new long[StrengthEstimator.LABELS.length];
+            AsciiLine line = new AsciiLine(buffer);
+            int lineStart = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || buffer.get(i) == '\n') {
+                    int lineEnd = i;
+                    if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                        lineEnd--;
+                    }
+                    if (lineEnd > lineStart) {
+                        line.set(lineStart, lineEnd - lineStart);
+                        counts[StrengthEstimator.bucket(StrengthEstimator.score(line))]++;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Reusable view of one line of the mapped file. Bytes are read as
+     * ISO-8859-1, so non-ASCII bytes score as special characters.
+     */
+    static final class AsciiLine implements CharSequence {
+        private final MappedByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        AsciiLine(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void set(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,481 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PasswordCli - headless entry point for PasswordGenerator
+ * Features:
+ * - Streams any number of passwords to stdout or a file
+ * - Generates in fixed-size blocks reused across the whole run, so memory
+ * stays constant regardless of count
+ * - Reports throughput in passwords per second on stderr
+ * - Selectable random source, with a throughput comparison across sources
+ * - Strength audit of an existing password file
+ * - Breach filter building, and loading it to reject breached passwords
+ * - Optional uniqueness across the whole run via a compact fingerprint index
+ * - Policy constraints (minimum per class, exclusions, no repeats)
+ * - Diceware-style passphrases from a memory-mapped word list
+ * - Local HTTP service and a load-test harness for it
+ */
+final class PasswordCli {
+
+    // Passwords generated and written per block
+    private static final int BLOCK_PASSWORDS = 64 * 1024;
+    // Upper bound on the reused output block
+    private static final int MAX_BLOCK_BYTES = 8 * 1024 * 1024;
+    private static final int MAX_LENGTH = 4096;
+
+    private long count = 10;
+    private int length = 12;
+    private boolean upper, lower, numbers, special;
+    private Path output;
+    private Long seed;
+    private RandomSource.Kind rng = RandomSource.Kind.SECURE;
+    private boolean compareRng;
+    private boolean unique;
+    private Path audit;
+    private Path breachFilter;
+    private Path buildFilterCorpus;
+    private double falsePositiveRate = 0.001;
+    private final int[] minimums = new int[4];
+    private String exclude = "";
+    private boolean noAmbiguous;
+    private boolean noRepeat;
+    private boolean hasPolicy;
+    private Path wordList;
+    private int words = 6;
+    private char wordSeparator = '-';
+    private boolean rngSpecified;
+    private Integer servePort;
+    private int threads = Runtime.getRuntime().availableProcessors() * 2;
+    private boolean loadTest;
+    private String url;
+    private int concurrency = 16;
+    private int requests = 10_000;
+
+    private PasswordCli() {
+    }
+
+    static boolean isCliInvocation(String[] args) {
+        return args.length > 0;
+    }
+
+    static int run(String[] args, PrintStream err) {
+        PasswordCli cli = new PasswordCli();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            printUsage(err);
+            return 2;
+        }
+        if (cli.count < 0) {
+            printUsage(err);
+            return 0;
+        }
+        if (cli.buildFilterCorpus != null) {
+            if (cli.breachFilter == null) {
+                err.println("Error: --build-breach-filter needs --breach-filter FILE for the output");
+                return 2;
+            }
+            return BreachFilter.runBuild(cli.buildFilterCorpus, cli.breachFilter, cli.falsePositiveRate, err);
+        }
+        if (cli.breachFilter != null) {
+            try {
+                BreachFilter.setActive(BreachFilter.load(cli.breachFilter));
+            } catch (IOException e) {
+                err.println("Error: " + e.getMessage());
+                return 1;
+            }
+        }
+        if (cli.audit != null) {
+            return PasswordAudit.run(cli.audit, System.out);
+        }
+        if (cli.servePort != null) {
+            return PasswordServer.run(cli.servePort, cli.threads, err);
+        }
+        if (cli.loadTest) {
+            return PasswordLoadTest.run(cli.url, cli.serviceQuery(), cli.count, cli.concurrency, cli.requests,
+                    System.out);
+        }
+        try {
+            if (cli.wordList != null) {
+                cli.streamPassphrases(err);
+                return 0;
+            }
+            if (cli.compareRng) {
+                cli.compareRandomSources(err);
+            } else {
+                cli.stream(err);
+            }
+            return 0;
+        } catch (IOException | IllegalArgumentException | BreachFilter.RetriesExhaustedException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parse(String[] args) {
+        boolean anyClass = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-n":
+                case "--count":
+                    count = parseLong(arg, value(args, ++i, arg));
+                    break;
+                case "-l":
+                case "--length":
+                    length = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "-o":
+                case "--output":
+                    output = Path.of(value(args, ++i, arg));
+                    break;
+                case "--seed":
+                    seed = parseLong(arg, value(args, ++i, arg));
+                    break;
+                case "--rng":
+                    rng = RandomSource.Kind.parse(value(args, ++i, arg));
+                    rngSpecified = true;
+                    break;
+                case "--serve":
+                    servePort = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--threads":
+                    threads = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--load-test":
+                    loadTest = true;
+                    break;
+                case "--url":
+                    url = value(args, ++i, arg);
+                    break;
+                case "--concurrency":
+                    concurrency = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--requests":
+                    requests = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--audit":
+                    audit = Path.of(value(args, ++i, arg));
+                    break;
+                case "--breach-filter":
+                    breachFilter = Path.of(value(args, ++i, arg));
+                    break;
+                case "--build-breach-filter":
+                    buildFilterCorpus = Path.of(value(args, ++i, arg));
+                    break;
+                case "--fp-rate":
+                    falsePositiveRate = parseDouble(arg, value(args, ++i, arg));
+                    break;
+                case "--unique":
+                    unique = true;
+                    break;
+                case "--min-upper":
+                case "--min-lower":
+                case "--min-numbers":
+                case "--min-special":
+                    minimums[Arrays.asList("--min-upper", "--min-lower", "--min-numbers", "--min-special")
+                            .indexOf(arg)] = parseInt(arg, value(args, ++i, arg));
+                    hasPolicy = true;
+                    break;
+                case "--exclude":
+                    exclude += value(args, ++i, arg);
+                    hasPolicy = true;
+                    break;
+                case "--no-ambiguous":
+                    noAmbiguous = hasPolicy = true;
+                    break;
+                case "--no-repeat":
+                    noRepeat = hasPolicy = true;
+                    break;
+                case "--passphrase":
+                    wordList = Path.of(value(args, ++i, arg));
+                    break;
+                case "--words":
+                    words = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--word-separator":
+                    String sep = value(args, ++i, arg);
+                    if (sep.length() != 1) {
+                        throw new IllegalArgumentException("Word separator must be a single character");
+                    }
+                    wordSeparator = sep.charAt(0);
+                    break;
+                case "--compare-rng":
+                    compareRng = true;
+                    break;
+                case "--upper":
+                    upper = anyClass = true;
+                    break;
+                case "--lower":
+                    lower = anyClass = true;
+                    break;
+                case "--numbers":
+                    numbers = anyClass = true;
+                    break;
+                case "--special":
+                    special = anyClass = true;
+                    break;
+                case "--all":
+                    upper = lower = numbers = special = anyClass = true;
+                    break;
+                case "-h":
+                case "--help":
+                    count = -1;
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (!anyClass) {
+            // Same default as the UI: lowercase only
+            lower = true;
+        }
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Length must be between 1 and " + MAX_LENGTH);
+        }
+        if (seed != null && rng != RandomSource.Kind.SPLITTABLE) {
+            // Only the splittable source is reproducible; never fall back to it silently
+            throw new IllegalArgumentException("--seed needs --rng splittable");
+        }
+        if (wordList != null && (unique || breachFilter != null || hasPolicy)) {
+            // Passphrases are drawn from the word list alone; refuse rather than ignore these
+            throw new IllegalArgumentException(
+                    "--passphrase cannot be combined with --unique, --breach-filter or policy options");
+        }
+        if (threads < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("--threads and --concurrency must be at least 1");
+        }
+    }
+
+    // Query for PasswordServer matching the generation options
+    private String serviceQuery() {
+        StringBuilder pool = new StringBuilder();
+        String[] names = { "upper", "lower", "numbers", "special" };
+        boolean[] selected = { upper, lower, numbers, special };
+        for (int i = 0; i < names.length; i++) {
+            if (selected[i]) {
+                pool.append(pool.length() > 0 ? "," : "").append(names[i]);
+            }
+        }
+        String query = "length=" + length + "&count=" + count + "&pool=" + pool;
+        // The service defaults to the secure source; only override it on request
+        return rngSpecified ? query + "&rng=" + rng.name().toLowerCase() : query;
+    }
+
+    private PasswordPolicy.Plan compilePolicy() {
+        PasswordPolicy policy = new PasswordPolicy()
+                .length(length)
+                .classes(upper, lower, numbers, special)
+                .minUpper(minimums[0])
+                .minLower(minimums[1])
+                .minNumbers(minimums[2])
+                .minSpecial(minimums[3])
+                .exclude(exclude);
+        if (noAmbiguous) {
+            policy.excludeAmbiguous();
+        }
+        if (noRepeat) {
+            policy.noConsecutiveRepeats();
+        }
+        return policy.compile();
+    }
+
+    private void stream(PrintStream err) throws IOException {
+        PasswordEngine engine = PasswordEngine.forOptions(upper, lower, numbers, special);
+        PasswordPolicy.Plan plan = hasPolicy ? compilePolicy() : null;
+        int blockPasswords = blockPasswords();
+        byte[] block = new byte[blockPasswords * (length + 1)];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        // Block seeds come from their own generator so every block draws an independent stream
+        SplittableRandom blockSeeds = new SplittableRandom(
+                seed != null ? seed : ThreadLocalRandom.current().nextLong());
+        UniqueBatch uniqueBatch = null;
+        if (unique) {
+            uniqueBatch = plan != null ? new UniqueBatch(plan, count, rng, blockSeeds.nextLong())
+                    : new UniqueBatch(engine, count, length, rng, blockSeeds.nextLong());
+        }
+
+        long start = System.nanoTime();
+        try (WritableByteChannel channel = openChannel()) {
+            long remaining = count;
+            while (remaining > 0) {
+                int n = (int) Math.min(blockPasswords, remaining);
+                int bytes = plan != null ? plan.generateBatch(block, 0, n, '\n', rng, blockSeeds.nextLong())
+                        : engine.generateBatch(block, 0, n, length, '\n', rng, blockSeeds.nextLong());
+                if (uniqueBatch != null) {
+                    uniqueBatch.dedupe(block, n, length, length + 1);
+                }
+                buffer.clear().limit(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                remaining -= n;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        err.printf("Generated %,d passwords in %.3f s (%,.0f passwords/s)%n",
+                count, seconds, seconds > 0 ? count / seconds : 0.0);
+        if (uniqueBatch != null) {
+            err.printf("All passwords unique: %,d duplicates regenerated, index %,.1f MiB%n",
+                    uniqueBatch.duplicatesRegenerated(), uniqueBatch.indexBytes() / (1024.0 * 1024.0));
+        }
+    }
+
+    private void streamPassphrases(PrintStream err) throws IOException {
+        long loadStart = System.nanoTime();
+        WordList list = WordList.load(wordList);
+        err.printf("Loaded %,d words in %.1f ms%n", list.size(), (System.nanoTime() - loadStart) / 1e6);
+        PassphraseGenerator generator = new PassphraseGenerator(list, words, wordSeparator);
+
+        // One chunk per core; every block fills all of them
+        int chunks = Runtime.getRuntime().availableProcessors();
+        byte[][] chunkBuffers = new byte[chunks][generator.chunkCapacity()];
+        int[] chunkLengths = new int[chunks];
+        int blockPassphrases = chunks * PasswordEngine.CHUNK_SIZE;
+        SplittableRandom blockSeeds = new SplittableRandom(
+                seed != null ? seed : ThreadLocalRandom.current().nextLong());
+
+        long start = System.nanoTime();
+        try (WritableByteChannel channel = openChannel()) {
+            long remaining = count;
+            while (remaining > 0) {
+                int n = (int) Math.min(blockPassphrases, remaining);
+                generator.generateBlock(chunkBuffers, chunkLengths, n, (byte) '\n', rng, blockSeeds.nextLong());
+                for (int c = 0; c < chunks; c++) {
+                    ByteBuffer buffer = ByteBuffer.wrap(chunkBuffers[c], 0, chunkLengths[c]);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                remaining -= n;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        err.printf("Generated %,d passphrases of %d words (%.1f bits each) in %.3f s (%,.0f passphrases/s)%n",
+                count, words, generator.entropyBits(), seconds, seconds > 0 ? count / seconds : 0.0);
+    }
+
+    /**
+     * Generates {@code count} passwords with every random source into a
+     * discarded block and prints the rate of each, so the secure source can be
+     * weighed against the batch provisioning rate.
+     */
+    private void compareRandomSources(PrintStream err) {
+        PasswordEngine engine = PasswordEngine.forOptions(upper, lower, numbers, special);
+        int blockPasswords = blockPasswords();
+        byte[] block = new byte[blockPasswords * (length + 1)];
+        err.printf("Comparing random sources: %,d passwords of length %d, pool of %d characters%n",
+                count, length, engine.poolSize());
+        for (RandomSource.Kind kind : RandomSource.Kind.values()) {
+            // One untimed block warms up the JIT and the SecureRandom provider
+            engine.generateBatch(block, 0, blockPasswords, length, '\n', kind, 0);
+            long start = System.nanoTime();
+            SplittableRandom blockSeeds = new SplittableRandom();
+            long remaining = count;
+            while (remaining > 0) {
+                int n = (int) Math.min(blockPasswords, remaining);
+                engine.generateBatch(block, 0, n, length, '\n', kind, blockSeeds.nextLong());
+                remaining -= n;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            err.printf("  %-13s %,15.0f passwords/s%n", kind, seconds > 0 ? count / seconds : 0.0);
+        }
+    }
+
+    private int blockPasswords() {
+        return Math.max(1, Math.min(BLOCK_PASSWORDS, MAX_BLOCK_BYTES / (length + 1)));
+    }
+
+    private WritableByteChannel openChannel() throws IOException {
+        if (output == null) {
+            return Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+        }
+        return FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[i];
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            long v = Long.parseLong(value.replace("_", ""));
+            if (v < 0) {
+                throw new IllegalArgumentException(option + " must not be negative");
+            }
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+
+    private static int parseInt(String option, String value) {
+        long v = parseLong(option, value);
+        if (v > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(option + " is too large: " + value);
+        }
+        return (int) v;
+    }
+
+    private static double parseDouble(String option, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: java PasswordGenerator [options]");
+        out.println("  -n, --count N       number of passwords to generate (default 10)");
+        out.println("  -l, --length N      password length (default 12)");
+        out.println("  -o, --output FILE   write to FILE instead of stdout");
+        out.println("      --upper --lower --numbers --special --all");
+        out.println("                      character types (default lowercase only)");
+        out.println("      --rng SOURCE    secure (default), splittable or threadlocal");
+        out.println("      --min-upper N --min-lower N --min-numbers N --min-special N");
+        out.println("                      require at least N characters of a type (enables it)");
+        out.println("      --exclude CHARS never use any of CHARS");
+        out.println("      --no-ambiguous  never use easily confused characters (" + PasswordPolicy.AMBIGUOUS + ")");
+        out.println("      --no-repeat     never repeat a character consecutively");
+        out.println("      --passphrase WORDLIST");
+        out.println("                      generate passphrases from a word list instead");
+        out.println("      --words N       words per passphrase (default 6)");
+        out.println("      --word-separator C");
+        out.println("                      character between words (default -)");
+        out.println("      --unique        guarantee every password in the run is distinct");
+        out.println("      --seed N        fixed seed for reproducible output (needs --rng splittable)");
+        out.println("      --compare-rng   report throughput of every random source and exit");
+        out.println("      --audit FILE    score every line of FILE and print a strength histogram");
+        out.println("      --breach-filter FILE");
+        out.println("                      reject and down-score passwords found in this filter");
+        out.println("      --build-breach-filter CORPUS");
+        out.println("                      build the --breach-filter FILE from a newline-delimited corpus");
+        out.println("      --fp-rate P     false-positive rate for a new filter (default 0.001)");
+        out.println("      --serve PORT    serve passwords over HTTP on localhost:PORT" + PasswordServer.PATH);
+        out.println("      --threads N     request handler threads for --serve (default 2 per core)");
+        out.println("      --load-test     load-test the service with the generation options above,");
+        out.println("                      -n passwords per request (in-process server unless --url)");
+        out.println("      --url URL       service to load-test, e.g. http://localhost:8080");
+        out.println("      --concurrency N client threads for --load-test (default 16)");
+        out.println("      --requests N    requests sent by --load-test (default 10000)");
+        out.println("Run without options to open the graphical interface.");
+    }
+}
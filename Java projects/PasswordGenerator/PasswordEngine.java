@@ -0,0 +1,267 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * PasswordEngine - headless password generation shared by the Swing UI and
+ * bulk provisioning.
+ * Features:
+ * - Character pool built once per option combination and cached
+ * - Single password generation for the UI, backed by SecureRandom
+ * - Parallel batch generation into preallocated char[]/byte[] buffers with
+ * per-worker RNG state from a pluggable RandomSource; the public batch
+ * methods always use SecureRandom, and seeded, reproducible output has to be
+ * asked for with an explicit RandomSource.Kind
+ * - Passwords found in the active BreachFilter are regenerated; if every
+ * redraw is flagged, generation throws BreachFilter.RetriesExhaustedException
+ * instead of returning a breached password
+ */
+public final class PasswordEngine {
+
+    // Character classes, in the order the UI appends them to the pool
+    static final String UPPERCASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String LOWERCASE = "abcdefghijklmnopqrstuvwxyz";
+    static final String NUMBERS = "0123456789";
+    static final String SPECIAL = "!@#$%^&*()-_=+[]{};:,.<>?";
+
+    // Pool mask bits, one per character class
+    static final int UPPER_BIT = 1;
+    static final int LOWER_BIT = 2;
+    static final int NUMBERS_BIT = 4;
+    static final int SPECIAL_BIT = 8;
+
+    // Passwords per parallel work unit; large enough to amortise task overhead
+    static final int CHUNK_SIZE = 16 * 1024;
+    // Draws allowed for a password the breach filter rejects before generation
+    // fails; only tiny pools at short lengths can exhaust this
+    static final int MAX_BREACH_RETRIES = 64;
+
+    private static final PasswordEngine[] ENGINES = new PasswordEngine[16];
+
+    private final int mask;
+    private final char[] pool;
+    private final byte[] poolBytes;
+
+    private PasswordEngine(int mask) {
+        this.mask = mask;
+        StringBuilder sb = new StringBuilder();
+        if ((mask & UPPER_BIT) != 0)
+            sb.append(UPPERCASE);
+        if ((mask & LOWER_BIT) != 0)
+            sb.append(LOWERCASE);
+        if ((mask & NUMBERS_BIT) != 0)
+            sb.append(NUMBERS);
+        if ((mask & SPECIAL_BIT) != 0)
+            sb.append(SPECIAL);
+        this.pool = sb.toString().toCharArray();
+        this.poolBytes = new byte[pool.length];
+        for (int i = 0; i < pool.length; i++) {
+            poolBytes[i] = (byte) pool[i]; // all pool characters are ASCII
+        }
+    }
+
+    public static int poolMask(boolean upper, boolean lower, boolean numbers, boolean special) {
+        return (upper ? UPPER_BIT : 0) | (lower ? LOWER_BIT : 0)
+                | (numbers ? NUMBERS_BIT : 0) | (special ? SPECIAL_BIT : 0);
+    }
+
+    public static PasswordEngine forOptions(boolean upper, boolean lower, boolean numbers, boolean special) {
+        return forMask(poolMask(upper, lower, numbers, special));
+    }
+
+    public static PasswordEngine forMask(int mask) {
+        if (mask < 0 || mask >= ENGINES.length) {
+            throw new IllegalArgumentException("Invalid pool mask: " + mask);
+        }
+        PasswordEngine engine = ENGINES[mask];
+        if (engine == null) {
+            // Benign race: engines are immutable, so a duplicate is harmless
+            engine = new PasswordEngine(mask);
+            ENGINES[mask] = engine;
+        }
+        return engine;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public int poolSize() {
+        return pool.length;
+    }
+
+    char poolChar(int index) {
+        return pool[index];
+    }
+
+    public String generate(int length) {
+        return generate(length, RandomSource.threadSecure());
+    }
+
+    String generate(int length, RandomSource rng) {
+        if (pool.length == 0) {
+            return "";
+        }
+        char[] out = new char[length];
+        fill(out, 0, 1, length, rng);
+        return new String(out);
+    }
+
+    /**
+     * Generates {@code count} passwords of {@code length} characters into a
+     * single flat buffer; password {@code i} occupies
+     * {@code [i * length, (i + 1) * length)}.
+     */
+    public char[] generateBatch(int count, int length) {
+        char[] out = new char[checkedSize(count, length)];
+        generateBatch(out, 0, count, length);
+        return out;
+    }
+
+    public void generateBatch(char[] out, int offset, int count, int length) {
+        generateBatch(out, offset, count, length, RandomSource.Kind.SECURE, 0);
+    }
+
+    /**
+     * Generates a batch from the given kind of random source. Only
+     * {@code SPLITTABLE} uses {@code seed}, and its output is reproducible
+     * from it, so it must never be used for real credentials.
+     */
+    void generateBatch(char[] out, int offset, int count, int length, RandomSource.Kind kind, long seed) {
+        checkBounds(out.length, offset, count, length, 0);
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        RandomSource[] rngs = randomSources(kind, seed, chunks);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int first = c * CHUNK_SIZE;
+            int n = Math.min(CHUNK_SIZE, count - first);
+            fill(out, offset + first * length, n, length, rngs[c]);
+        });
+    }
+
+    /**
+     * Generates {@code count} ASCII passwords into {@code out}, each followed by
+     * {@code separator} when it is not negative. Returns the number of bytes
+     * written.
+     */
+    public int generateBatch(byte[] out, int offset, int count, int length, int separator) {
+        return generateBatch(out, offset, count, length, separator, RandomSource.Kind.SECURE, 0);
+    }
+
+    int generateBatch(byte[] out, int offset, int count, int length, int separator,
+            RandomSource.Kind kind, long seed) {
+        int stride = length + (separator >= 0 ? 1 : 0);
+        checkBounds(out.length, offset, count, length, separator >= 0 ? 1 : 0);
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        RandomSource[] rngs = randomSources(kind, seed, chunks);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int first = c * CHUNK_SIZE;
+            int n = Math.min(CHUNK_SIZE, count - first);
+            fill(out, offset + first * stride, n, length, separator, rngs[c]);
+        });
+        return count * stride;
+    }
+
+    /**
+     * Generates a batch in which every password is distinct; duplicates are
+     * regenerated in place. The returned batch reports the regeneration count
+     * and the size of the index used.
+     */
+    public UniqueBatch generateUniqueBatch(char[] out, int offset, int count, int length) {
+        return generateUniqueBatch(out, offset, count, length, RandomSource.Kind.SECURE, 0);
+    }
+
+    UniqueBatch generateUniqueBatch(char[] out, int offset, int count, int length, RandomSource.Kind kind,
+            long seed) {
+        UniqueBatch unique = new UniqueBatch(this, count, length, kind, ~seed);
+        generateBatch(out, offset, count, length, kind, seed);
+        unique.dedupe(out, offset, count, length);
+        return unique;
+    }
+
+    private void fill(char[] out, int offset, int count, int length, RandomSource rng) {
+        BreachFilter filter = BreachFilter.active();
+        for (int n = 0, pos = offset; n < count; n++, pos += length) {
+            fillOne(out, pos, length, rng, filter);
+        }
+    }
+
+    private void fill(byte[] out, int offset, int count, int length, int separator, RandomSource rng) {
+        BreachFilter filter = BreachFilter.active();
+        int pos = offset;
+        for (int n = 0; n < count; n++) {
+            fillOne(out, pos, length, rng, filter);
+            pos += length;
+            if (separator >= 0) {
+                out[pos++] = (byte) separator;
+            }
+        }
+    }
+
+    /** Overwrites one password of a batch with a fresh one. */
+    void regenerate(char[] out, int pos, int length, RandomSource rng) {
+        fillOne(out, pos, length, rng, BreachFilter.active());
+    }
+
+    void regenerate(byte[] out, int pos, int length, RandomSource rng) {
+        fillOne(out, pos, length, rng, BreachFilter.active());
+    }
+
+    private void fillOne(char[] out, int pos, int length, RandomSource rng, BreachFilter filter) {
+        char[] p = pool;
+        int bound = p.length;
+        for (int attempt = 1;; attempt++) {
+            for (int i = pos; i < pos + length; i++) {
+                out[i] = p[rng.nextIndex(bound)];
+            }
+            if (filter == null || !filter.mightContain(out, pos, length)) {
+                return;
+            }
+            if (attempt == MAX_BREACH_RETRIES) {
+                throw new BreachFilter.RetriesExhaustedException(attempt);
+            }
+        }
+    }
+
+    private void fillOne(byte[] out, int pos, int length, RandomSource rng, BreachFilter filter) {
+        byte[] p = poolBytes;
+        int bound = p.length;
+        for (int attempt = 1;; attempt++) {
+            for (int i = pos; i < pos + length; i++) {
+                out[i] = p[rng.nextIndex(bound)];
+            }
+            if (filter == null || !filter.mightContain(out, pos, length)) {
+                return;
+            }
+            if (attempt == MAX_BREACH_RETRIES) {
+                throw new BreachFilter.RetriesExhaustedException(attempt);
+            }
+        }
+    }
+
+    // Seeds are split sequentially so a given seed always yields the same batch
+    static RandomSource[] randomSources(RandomSource.Kind kind, long seed, int n) {
+        SplittableRandom root = new SplittableRandom(seed);
+        RandomSource[] rngs = new RandomSource[n];
+        for (int i = 0; i < n; i++) {
+            rngs[i] = RandomSource.create(kind, root.nextLong());
+        }
+        return rngs;
+    }
+
+    private void checkBounds(int capacity, int offset, int count, int length, int extra) {
+        if (pool.length == 0) {
+            throw new IllegalStateException("No character types selected");
+        }
+        if (count < 0 || length < 0 || offset < 0
+                || (long) offset + (long) count * (length + extra) > capacity) {
+            throw new IndexOutOfBoundsException("Buffer too small for " + count + " passwords of length " + length);
+        }
+    }
+
+    private static int checkedSize(int count, int length) {
+        long size = (long) count * length;
+        if (count < 0 || length < 0 || size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Batch too large: " + count + " x " + length);
+        }
+        return (int) size;
+    }
+}
@@ -1,12 +1,14 @@
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 
 public class PasswordGenerator extends JFrame {
-    private JCheckBox uppercaseCb, lowercaseCb, numbersCb, specialCb;
+    private JCheckBox uppercaseCb, lowercaseCb, numbersCb, specialCb, passphraseCb;
     private JSpinner lengthSpinner;
     private JButton generateButton, copyButton, showHideButton;
     private JTextField passwordField;
@@ -14,6 +16,13 @@ public class PasswordGenerator extends JFrame {
     private JProgressBar strengthBar;
     private boolean isPasswordVisible = false;
 
+    // Word list for passphrase mode, loaded from -Dpasswordgenerator.wordList
+    private static WordList wordList;
+
+    // Passwords for the current settings, generated ahead on a background thread
+    private final PasswordPrefetcher prefetcher = new PasswordPrefetcher(32, SwingUtilities::invokeLater);
+    private Timer generateFeedbackTimer, copyFeedbackTimer;
+
     // Modern color scheme
     private static final Color DARK_BG = new Color(32, 33, 36);
     private static final Color CARD_BG = new Color(48, 49, 52);
@@ -28,6 +37,7 @@ public class PasswordGenerator extends JFrame {
         super("Password Generator Pro");
         initializeUI();
         setupEventHandlers();
+        prefetcher.setSource(currentSource());
         setLocationRelativeTo(null);
     }
 
@@ -89,18 +99,24 @@ public class PasswordGenerator extends JFrame {
                 BorderFactory.createEmptyBorder(15, 15, 15, 15)));
 
         // Character set options
-        JPanel checkboxPanel = new JPanel(new GridLayout(4, 1, 5, 5));
+        JPanel checkboxPanel = new JPanel(new GridLayout(5, 1, 5, 5));
         checkboxPanel.setBackground(CARD_BG);
 
         uppercaseCb = createStyledCheckBox("Uppercase (A-Z)", false);
         lowercaseCb = createStyledCheckBox("Lowercase (a-z)", true);
         numbersCb = createStyledCheckBox("Numbers (0-9)", false);
         specialCb = createStyledCheckBox("Special (!@#$%)", false);
+        passphraseCb = createStyledCheckBox("Passphrase (length = words)", false);
+        passphraseCb.setEnabled(wordList != null);
+        passphraseCb.setToolTipText(wordList != null
+                ? String.format("%,d-word list, %.1f bits per word", wordList.size(), wordList.bitsPerWord())
+                : "Start with -Dpasswordgenerator.wordList=FILE to enable");
 
         checkboxPanel.add(uppercaseCb);
         checkboxPanel.add(lowercaseCb);
         checkboxPanel.add(numbersCb);
         checkboxPanel.add(specialCb);
+        checkboxPanel.add(passphraseCb);
 
         // Length control
         JPanel lengthPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -228,21 +244,50 @@ public class PasswordGenerator extends JFrame {
         showHideButton.addActionListener(e -> togglePasswordVisibility());
 
         // Add change listeners for real-time strength calculation
-        lengthSpinner.addChangeListener(e -> updatePasswordStrength());
-        uppercaseCb.addActionListener(e -> updatePasswordStrength());
-        lowercaseCb.addActionListener(e -> updatePasswordStrength());
-        numbersCb.addActionListener(e -> updatePasswordStrength());
-        specialCb.addActionListener(e -> updatePasswordStrength());
+        lengthSpinner.addChangeListener(e -> settingsChanged());
+        uppercaseCb.addActionListener(e -> settingsChanged());
+        lowercaseCb.addActionListener(e -> settingsChanged());
+        numbersCb.addActionListener(e -> settingsChanged());
+        specialCb.addActionListener(e -> settingsChanged());
+        passphraseCb.addActionListener(e -> settingsChanged());
+
+        // Feedback timers are created once and restarted on each click
+        generateFeedbackTimer = new Timer(1500, evt -> generateButton.setText("Generate Password"));
+        generateFeedbackTimer.setRepeats(false);
+        copyFeedbackTimer = new Timer(1500, evt -> copyButton.setText("Copy to Clipboard"));
+        copyFeedbackTimer.setRepeats(false);
     }
 
-    private void generatePassword() {
+    private void settingsChanged() {
+        updatePasswordStrength();
+        prefetcher.setSource(currentSource());
+    }
+
+    // Generator for the current settings, run on the prefetcher's thread
+    private Supplier<String> currentSource() {
         int length = (Integer) lengthSpinner.getValue();
         boolean upper = uppercaseCb.isSelected();
         boolean lower = lowercaseCb.isSelected();
         boolean numbers = numbersCb.isSelected();
         boolean special = specialCb.isSelected();
 
+        if (passphraseCb.isSelected()) {
+            return new PassphraseGenerator(wordList, length, '-')::generate;
+        }
         if (!upper && !lower && !numbers && !special) {
+            return null;
+        }
+        return () -> generatePassword(length, upper, lower, numbers, special);
+    }
+
+    private void generatePassword() {
+        int length = (Integer) lengthSpinner.getValue();
+        boolean upper = uppercaseCb.isSelected();
+        boolean lower = lowercaseCb.isSelected();
+        boolean numbers = numbersCb.isSelected();
+        boolean special = specialCb.isSelected();
+
+        if (!upper && !lower && !numbers && !special && !passphraseCb.isSelected()) {
             JOptionPane.showMessageDialog(this,
                     "Please select at least one character type.",
                     "No Character Types Selected",
@@ -250,18 +295,27 @@ public class PasswordGenerator extends JFrame {
             return;
         }
 
-        String password = generatePassword(length, upper, lower, numbers, special);
+        // Usually ready in the prefetch buffer; otherwise delivered once generated
+        generateButton.setText("Generating...");
+        prefetcher.next(this::showGeneratedPassword, this::showGenerationError);
+    }
+
+    private void showGenerationError(RuntimeException e) {
+        generateButton.setText("Generate Password");
+        JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void showGeneratedPassword(String password) {
+        if (passphraseCb.isSelected()) {
+            updatePasswordStrength();
+        } else {
+            updatePasswordStrength(password);
+        }
         passwordField.setText(password);
         copyButton.setEnabled(true);
-        updatePasswordStrength(); // Show success feedback
+        // Show success feedback
         generateButton.setText("Generated!");
-        Timer timer = new Timer(1500, evt -> {
-            evt.getActionCommand(); // suppress unused warning
-            generateButton.setText("Generate Password");
-        });
-        timer.setRepeats(false);
-        timer.start();
-        ;
+        generateFeedbackTimer.restart();
     }
 
     private void copyToClipboard() {
@@ -274,12 +328,7 @@ public class PasswordGenerator extends JFrame {
         Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
         clipboard.setContents(selection, null); // Show copy feedback
         copyButton.setText("Copied!");
-        Timer timer = new Timer(1500, evt -> {
-            evt.getActionCommand(); // suppress unused warning
-            copyButton.setText("Copy to Clipboard");
-        });
-        timer.setRepeats(false);
-        timer.start();
+        copyFeedbackTimer.restart();
     }
 
     private void togglePasswordVisibility() {
@@ -301,82 +350,69 @@ public class PasswordGenerator extends JFrame {
         boolean numbers = numbersCb.isSelected();
         boolean special = specialCb.isSelected();
 
+        if (passphraseCb.isSelected()) {
+            double bits = length * wordList.bitsPerWord();
+            showPasswordStrength(StrengthEstimator.scoreForBits(bits), bits);
+            return;
+        }
+
         int score = calculatePasswordStrength(length, upper, lower, numbers, special);
+        int mask = PasswordEngine.poolMask(upper, lower, numbers, special);
+        showPasswordStrength(score, StrengthEstimator.bitsForSettings(length, mask));
+    }
+
+    private void updatePasswordStrength(String password) {
+        double bits = StrengthEstimator.entropyBits(password);
+        showPasswordStrength(StrengthEstimator.scoreForBits(bits), bits);
+    }
+
+    private void showPasswordStrength(int score, double bits) {
         strengthBar.setValue(score);
 
-        String strengthText;
+        String strengthText = StrengthEstimator.label(score);
         Color barColor;
 
-        if (score < 30) {
-            strengthText = "Weak";
+        if (score < StrengthEstimator.MODERATE_THRESHOLD) {
             barColor = DANGER_COLOR;
-        } else if (score < 60) {
-            strengthText = "Moderate";
+        } else if (score < StrengthEstimator.STRONG_THRESHOLD) {
             barColor = WARNING_COLOR;
-        } else if (score < 80) {
-            strengthText = "Strong";
-            barColor = SUCCESS_COLOR;
         } else {
-            strengthText = "Very Strong";
             barColor = SUCCESS_COLOR;
         }
 
-        strengthLabel.setText("Password Strength: " + strengthText);
+        strengthLabel.setText(String.format("Password Strength: %s (%.0f bits)", strengthText, bits));
         strengthBar.setForeground(barColor);
     }
 
-    private int calculatePasswordStrength(int length, boolean upper, boolean lower, boolean numbers, boolean special) {
-        int score = 0;
-
-        // Length scoring
-        if (length >= 8)
-            score += 20;
-        if (length >= 12)
-            score += 10;
-        if (length >= 16)
-            score += 10;
-        if (length >= 20)
-            score += 10;
-
-        // Character type scoring
-        if (upper)
-            score += 15;
-        if (lower)
-            score += 15;
-        if (numbers)
-            score += 15;
-        if (special)
-            score += 15;
-
-        return Math.min(100, score);
+    // Settings-only estimate for the live meter; a table lookup per spinner tick
+    static int calculatePasswordStrength(int length, boolean upper, boolean lower, boolean numbers, boolean special) {
+        return StrengthEstimator.scoreForSettings(length, PasswordEngine.poolMask(upper, lower, numbers, special));
     }
 
-    @SuppressWarnings("unused")
-    private String generatePassword(int length, boolean upper, boolean lower, boolean numbers, boolean special) {
-        StringBuilder pool = new StringBuilder();
-        if (upper)
-            pool.append("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
-        if (lower)
-            pool.append("abcdefghijklmnopqrstuvwxyz");
-        if (numbers)
-            pool.append("0123456789");
-        if (special)
-            pool.append("!@#$%^&*()-_=+[]{};:,.<>?");
-
-        if (pool.length() == 0) {
-            return "";
-        }
-
-        Random rand = new Random();
-        StringBuilder password = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int idx = rand.nextInt(pool.length());
-            password.append(pool.charAt(idx));
-        }
-        return password.toString();
+    static String generatePassword(int length, boolean upper, boolean lower, boolean numbers, boolean special) {
+        return PasswordEngine.forOptions(upper, lower, numbers, special).generate(length);
     }
 
     public static void main(String[] args) {
+        if (PasswordCli.isCliInvocation(args)) {
+            System.exit(PasswordCli.run(args, System.err));
+        }
+        String breachFilter = System.getProperty("passwordgenerator.breachFilter");
+        if (breachFilter != null) {
+            try {
+                BreachFilter.setActive(BreachFilter.load(Path.of(breachFilter)));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        String words = System.getProperty("passwordgenerator.wordList");
+        if (words != null) {
+            try {
+                wordList = WordList.load(Path.of(words));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         SwingUtilities.invokeLater(() -> new PasswordGenerator().setVisible(true));
     }
 }
@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordLoadTest - load-test harness for PasswordServer
+ * Features:
+ * - Closed loop: each client thread sends its next request as soon as the
+ * previous response body has been read
+ * - Keep-alive connections shared through one HttpClient
+ * - Untimed warm-up requests before measuring
+ * - Reports requests/s, passwords/s and p50/p90/p99/max latency
+ * Without a URL it starts a server in the same process on a free port.
+ */
+final class PasswordLoadTest {
+
+    private PasswordLoadTest() {
+    }
+
+    /**
+     * Sends {@code requests} GETs of {@code query} to {@code base} from
+     * {@code concurrency} threads and prints the results to {@code out}.
+     */
+    static int run(String base, String query, long passwordsPerRequest, int concurrency, int requests,
+            PrintStream out) {
+        PasswordServer local = null;
+        try {
+            if (base == null) {
+                local = PasswordServer.start(0, Math.max(concurrency, Runtime.getRuntime().availableProcessors()));
+                base = "http://localhost:" + local.port();
+                out.printf("Started in-process server on %s%n", base);
+            }
+            URI uri = URI.create(base + PasswordServer.PATH + "?" + query);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            int warmup = Math.min(requests / 10, 2000);
+            out.printf("Load test: %s, %d clients, %,d requests (%,d warm-up)%n", uri, concurrency, requests, warmup);
+            Result warm = drive(client, request, concurrency, warmup);
+            if (warm.errors > 0) {
+                out.printf("Error: %,d of %,d warm-up requests failed%n", warm.errors, warmup);
+                return 1;
+            }
+            Result result = drive(client, request, concurrency, requests);
+            report(result, passwordsPerRequest, out);
+            return result.errors == 0 ? 0 : 1;
+        } catch (IOException | IllegalArgumentException e) {
+            out.println("Error: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            if (local != null) {
+                local.stop();
+            }
+        }
+    }
+
+    private static Result drive(HttpClient client, HttpRequest request, int concurrency, int requests)
+            throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        Thread[] clients = new Thread[concurrency];
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            clients[c] = new Thread(() -> {
+                byte[] sink = new byte[64 * 1024];
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = client.send(request,
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        long read = 0;
+                        try (InputStream body = response.body()) {
+                            for (int n; (n = body.read(sink)) >= 0;) {
+                                read += n;
+                            }
+                        }
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        bytes.addAndGet(read);
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[i] = System.nanoTime() - t0;
+                }
+            }, "load-client-" + c);
+            clients[c].start();
+        }
+        for (Thread t : clients) {
+            t.join();
+        }
+        return new Result(latencies, System.nanoTime() - start, errors.get(), bytes.get());
+    }
+
+    private static void report(Result result, long passwordsPerRequest, PrintStream out) {
+        long[] sorted = result.latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos / 1e9;
+        int n = sorted.length;
+        out.printf("Completed %,d requests in %.3f s, %,d errors%n", n, seconds, result.errors);
+        out.printf("  throughput  %,12.0f requests/s  %,14.0f passwords/s  %,10.1f MiB/s%n",
+                n / seconds, n * passwordsPerRequest / seconds, result.bytes / seconds / (1024 * 1024));
+        if (n > 0) {
+            out.printf("  latency     p50 %.3f ms  p90 %.3f ms  p99 %.3f ms  max %.3f ms%n",
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 90) / 1e6,
+                    percentile(sorted, 99) / 1e6, sorted[n - 1] / 1e6);
+        }
+    }
+
+    // Nearest-rank percentile of an ascending array
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static final class Result {
+        final long[] latencies;
+        final long elapsedNanos;
+        final int errors;
+        final long bytes;
+
+        Result(long[] latencies, long elapsedNanos, int errors, long bytes) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+            this.bytes = bytes;
+        }
+    }
+}
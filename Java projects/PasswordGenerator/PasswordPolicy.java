@@ -0,0 +1,273 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * PasswordPolicy - password rules richer than the four character-type
+ * checkboxes
+ * Features:
+ * - Minimum count per character class
+ * - Excluded characters, with a preset for ambiguous ones (l/1/I/|, O/0)
+ * - No character repeated consecutively
+ * A policy is compiled once into a Plan. The plan places each required
+ * class in a shuffled slot and fills the rest from the combined pool, so
+ * every password satisfies the policy in constant time, with no
+ * generate-and-reject loop at any strictness. The only redraws are for
+ * passwords found in the active BreachFilter, as in PasswordEngine.
+ */
+public final class PasswordPolicy {
+
+    static final String AMBIGUOUS = "lI1|O0o";
+
+    // Class indexes; class i corresponds to pool mask bit (1 << i)
+    private static final String[] CLASS_CHARS = { PasswordEngine.UPPERCASE, PasswordEngine.LOWERCASE,
+            PasswordEngine.NUMBERS, PasswordEngine.SPECIAL };
+    private static final String[] CLASS_NAMES = { "uppercase", "lowercase", "numbers", "special" };
+    private static final byte ANY = 4;
+
+    private int length = 12;
+    private int mask;
+    private final int[] minimum = new int[4];
+    private String excluded = "";
+    private boolean noConsecutiveRepeats;
+
+    public PasswordPolicy length(int length) {
+        this.length = length;
+        return this;
+    }
+
+    public PasswordPolicy classes(boolean upper, boolean lower, boolean numbers, boolean special) {
+        mask = PasswordEngine.poolMask(upper, lower, numbers, special);
+        return this;
+    }
+
+    public PasswordPolicy minUpper(int count) {
+        return minimum(0, count);
+    }
+
+    public PasswordPolicy minLower(int count) {
+        return minimum(1, count);
+    }
+
+    public PasswordPolicy minNumbers(int count) {
+        return minimum(2, count);
+    }
+
+    public PasswordPolicy minSpecial(int count) {
+        return minimum(3, count);
+    }
+
+    public PasswordPolicy exclude(String characters) {
+        excluded += characters;
+        return this;
+    }
+
+    public PasswordPolicy excludeAmbiguous() {
+        return exclude(AMBIGUOUS);
+    }
+
+    public PasswordPolicy noConsecutiveRepeats() {
+        noConsecutiveRepeats = true;
+        return this;
+    }
+
+    private PasswordPolicy minimum(int cls, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Minimum count must not be negative");
+        }
+        minimum[cls] = count;
+        return this;
+    }
+
+    /** Validates the policy and builds its sampling plan. */
+    public Plan compile() {
+        // Requiring a class implies allowing it, whichever order the builder
+        // methods were called in
+        int mask = this.mask;
+        for (int cls = 0; cls < 4; cls++) {
+            if (minimum[cls] > 0) {
+                mask |= 1 << cls;
+            }
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("Policy allows no character types");
+        }
+        int required = 0;
+        for (int m : minimum) {
+            required += m;
+        }
+        if (length < 1 || required > length) {
+            throw new IllegalArgumentException(
+                    "Length " + length + " cannot hold the " + required + " required characters");
+        }
+        char[][] pools = new char[5][];
+        StringBuilder any = new StringBuilder();
+        for (int cls = 0; cls < 4; cls++) {
+            StringBuilder sb = new StringBuilder();
+            if ((mask & (1 << cls)) != 0) {
+                for (char c : CLASS_CHARS[cls].toCharArray()) {
+                    if (excluded.indexOf(c) < 0) {
+                        sb.append(c);
+                    }
+                }
+                if (sb.length() == 0) {
+                    throw new IllegalArgumentException("Exclusions remove every " + CLASS_NAMES[cls] + " character");
+                }
+                // A required class needs two characters so its slot can always avoid its neighbour
+                if (noConsecutiveRepeats && minimum[cls] > 0 && sb.length() < 2) {
+                    throw new IllegalArgumentException(
+                            "Not enough " + CLASS_NAMES[cls] + " characters to avoid consecutive repeats");
+                }
+            }
+            pools[cls] = sb.toString().toCharArray();
+            any.append(sb);
+        }
+        pools[ANY] = any.toString().toCharArray();
+        if (noConsecutiveRepeats && pools[ANY].length < 2 && length > 1) {
+            throw new IllegalArgumentException("Not enough characters to avoid consecutive repeats");
+        }
+
+        byte[] template = new byte[length];
+        int pos = 0;
+        for (int cls = 0; cls < 4; cls++) {
+            for (int i = 0; i < minimum[cls]; i++) {
+                template[pos++] = (byte) cls;
+            }
+        }
+        while (pos < length) {
+            template[pos++] = ANY;
+        }
+        return new Plan(pools, template, noConsecutiveRepeats);
+    }
+
+    /**
+     * Compiled form of a policy. Immutable and safe to share across threads;
+     * only the per-worker slot scratch is mutable.
+     */
+    public static final class Plan {
+        private final byte[][] pools;
+        // Position of each ASCII character in each pool, or -1
+        private final byte[][] positions;
+        private final byte[] template;
+        private final boolean noRepeats;
+
+        private Plan(char[][] charPools, byte[] template, boolean noRepeats) {
+            this.pools = new byte[charPools.length][];
+            this.positions = new byte[charPools.length][128];
+            for (int p = 0; p < charPools.length; p++) {
+                pools[p] = new byte[charPools[p].length];
+                Arrays.fill(positions[p], (byte) -1);
+                for (int i = 0; i < charPools[p].length; i++) {
+                    pools[p][i] = (byte) charPools[p][i];
+                    positions[p][charPools[p][i]] = (byte) i;
+                }
+            }
+            this.template = template;
+            this.noRepeats = noRepeats;
+        }
+
+        public int length() {
+            return template.length;
+        }
+
+        public String generate() {
+            return generate(RandomSource.threadSecure());
+        }
+
+        String generate(RandomSource rng) {
+            byte[] out = new byte[template.length];
+            fill(out, 0, rng, new byte[template.length], BreachFilter.active());
+            return new String(out, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Generates {@code count} passwords into {@code out}, each followed by
+         * {@code separator} when it is not negative. Returns the number of
+         * bytes written.
+         */
+        int generateBatch(byte[] out, int offset, int count, int separator, RandomSource.Kind kind, long seed) {
+            int length = template.length;
+            int stride = length + (separator >= 0 ? 1 : 0);
+            if (count < 0 || offset < 0 || (long) offset + (long) count * stride > out.length) {
+                throw new IndexOutOfBoundsException("Buffer too small for " + count + " passwords of length " + length);
+            }
+            int chunkSize = PasswordEngine.CHUNK_SIZE;
+            int chunks = (count + chunkSize - 1) / chunkSize;
+            RandomSource[] rngs = PasswordEngine.randomSources(kind, seed, chunks);
+            BreachFilter filter = BreachFilter.active();
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                byte[] slots = new byte[length];
+                int first = c * chunkSize;
+                int n = Math.min(chunkSize, count - first);
+                int pos = offset + first * stride;
+                for (int i = 0; i < n; i++) {
+                    fill(out, pos, rngs[c], slots, filter);
+                    pos += length;
+                    if (separator >= 0) {
+                        out[pos++] = (byte) separator;
+                    }
+                }
+            });
+            return count * stride;
+        }
+
+        /** Overwrites one password of a batch with a fresh one. */
+        void regenerate(byte[] out, int pos, RandomSource rng) {
+            fill(out, pos, rng, new byte[template.length], BreachFilter.active());
+        }
+
+        /** Approximate number of distinct passwords the plan can produce. */
+        double distinctPasswords() {
+            double distinct = 1;
+            for (int i = 0; i < template.length; i++) {
+                int size = pools[template[i]].length;
+                distinct *= noRepeats && i > 0 ? Math.max(1, size - 1) : size;
+            }
+            return distinct;
+        }
+
+        // Same bounded redraw as PasswordEngine: never returns a password the
+        // breach filter flags
+        private void fill(byte[] out, int pos, RandomSource rng, byte[] slots, BreachFilter filter) {
+            for (int attempt = 1;; attempt++) {
+                draw(out, pos, rng, slots);
+                if (filter == null || !filter.mightContain(out, pos, template.length)) {
+                    return;
+                }
+                if (attempt == PasswordEngine.MAX_BREACH_RETRIES) {
+                    throw new BreachFilter.RetriesExhaustedException(attempt);
+                }
+            }
+        }
+
+        private void draw(byte[] out, int pos, RandomSource rng, byte[] slots) {
+            int length = template.length;
+            System.arraycopy(template, 0, slots, 0, length);
+            // Fisher-Yates: spread the required classes over random positions
+            for (int i = length - 1; i > 0; i--) {
+                int j = rng.nextIndex(i + 1);
+                byte t = slots[i];
+                slots[i] = slots[j];
+                slots[j] = t;
+            }
+            int prev = -1;
+            for (int i = 0; i < length; i++) {
+                byte[] pool = pools[slots[i]];
+                int bound = pool.length;
+                int skip = prev >= 0 && noRepeats ? positions[slots[i]][prev] : -1;
+                int index;
+                if (skip >= 0 && bound > 1) {
+                    // Draw from the pool minus the previous character: one draw, no retry
+                    index = rng.nextIndex(bound - 1);
+                    if (index >= skip) {
+                        index++;
+                    }
+                } else {
+                    index = rng.nextIndex(bound);
+                }
+                out[pos + i] = pool[index];
+                prev = pool[index];
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * PasswordPrefetcher - keeps passwords for the current settings generated
+ * ahead of time on a background thread
+ * Features:
+ * - Bounded lock-free single-producer/single-consumer ring buffer
+ * - Taking the next password is O(1) and never generates on the caller's
+ * thread
+ * - Changing the source invalidates everything generated for the old
+ * settings; stale entries are tagged with an epoch and never handed out
+ * - When the buffer is empty the request is parked and delivered through
+ * the callback executor as soon as a password is ready; a parked request
+ * survives a source change and is served by the new source
+ * - A source that throws fails the parked request, and every later one
+ * until the source changes, through the error callback
+ * The consumer side (take, next, setSource) must be called from a single
+ * thread, normally the Swing event dispatch thread.
+ */
+final class PasswordPrefetcher {
+
+    private final String[] passwords;
+    private final int[] epochs;
+    private final int mask;
+    // Next slot to read (written by the consumer) and to write (by the producer)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Executor callbackExecutor;
+    private final ExecutorService producerExecutor;
+    private volatile Thread producerThread;
+    private volatile Supplier<String> source;
+    private volatile int epoch;
+    private volatile Consumer<String> pending;
+    private volatile Consumer<RuntimeException> pendingError;
+    // Last exception thrown by the source, with the epoch it belongs to
+    private volatile Failure failure;
+
+    PasswordPrefetcher(int capacity, Executor callbackExecutor) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.passwords = new String[size];
+        this.epochs = new int[size];
+        this.mask = size - 1;
+        this.callbackExecutor = callbackExecutor;
+        this.producerExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "password-prefetcher");
+            t.setDaemon(true);
+            return t;
+        });
+        producerExecutor.execute(this::produce);
+    }
+
+    /**
+     * Replaces the password source, discarding everything prefetched for the
+     * previous one. A parked request is served by the new source. A null
+     * source pauses the producer.
+     */
+    void setSource(Supplier<String> newSource) {
+        // Publish the source before the epoch: a producer that sees the new
+        // epoch is then guaranteed to also see the new source
+        source = newSource;
+        epoch++;
+        // Free the slots now so the producer can refill them straight away
+        long h = head.get();
+        long t = tail.get();
+        while (h < t) {
+            passwords[(int) h & mask] = null;
+            h++;
+        }
+        head.lazySet(h);
+        LockSupport.unpark(producerThread);
+    }
+
+    /** Returns the next prefetched password, or null if none is ready. */
+    String take() {
+        int current = epoch;
+        long h = head.get();
+        String password = null;
+        while (password == null && h < tail.get()) {
+            int slot = (int) h & mask;
+            if (epochs[slot] == current) {
+                password = passwords[slot];
+            }
+            passwords[slot] = null;
+            h++;
+        }
+        head.lazySet(h);
+        LockSupport.unpark(producerThread);
+        return password;
+    }
+
+    /**
+     * Hands the next password to {@code callback}: immediately if one is
+     * ready, otherwise on the callback executor once the producer has one.
+     * If the current source throws instead, the exception goes to
+     * {@code onError}. Exactly one of the two is called.
+     */
+    void next(Consumer<String> callback, Consumer<RuntimeException> onError) {
+        String password = take();
+        if (password != null) {
+            callback.accept(password);
+            return;
+        }
+        pendingError = onError;
+        pending = callback;
+        // The producer may have stored a password or failed after take() but
+        // before it could see the parked request
+        deliverPending();
+    }
+
+    void shutdown() {
+        producerExecutor.shutdownNow();
+    }
+
+    private void produce() {
+        producerThread = Thread.currentThread();
+        while (!Thread.currentThread().isInterrupted()) {
+            Supplier<String> s = source;
+            int e = epoch;
+            long t = tail.get();
+            if (s == null || t - head.get() > mask) {
+                LockSupport.park(this);
+                continue;
+            }
+            String password;
+            try {
+                password = s.get();
+            } catch (RuntimeException ex) {
+                // Settings the source cannot satisfy: report it, then wait for new ones
+                failure = new Failure(e, ex);
+                if (pending != null) {
+                    callbackExecutor.execute(this::deliverPending);
+                }
+                while (e == epoch && !Thread.currentThread().isInterrupted()) {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+            if (e != epoch) {
+                continue; // settings changed while generating
+            }
+            int slot = (int) t & mask;
+            passwords[slot] = password;
+            epochs[slot] = e;
+            // A full store, not lazySet: it must be visible before pending is read
+            tail.set(t + 1);
+            if (pending != null) {
+                callbackExecutor.execute(this::deliverPending);
+            }
+        }
+    }
+
+    private void deliverPending() {
+        Consumer<String> callback = pending;
+        if (callback == null) {
+            return;
+        }
+        String password = take();
+        if (password != null) {
+            pending = null;
+            callback.accept(password);
+            return;
+        }
+        Failure f = failure;
+        if (f != null && f.epoch == epoch) {
+            Consumer<RuntimeException> onError = pendingError;
+            pending = null;
+            onError.accept(f.error);
+        }
+    }
+
+    private static final class Failure {
+        final int epoch;
+        final RuntimeException error;
+
+        Failure(int epoch, RuntimeException error) {
+            this.epoch = epoch;
+            this.error = error;
+        }
+    }
+}
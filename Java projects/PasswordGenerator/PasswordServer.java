@@ -0,0 +1,260 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordServer - embedded HTTP endpoint for tools that cannot drive the UI
+ * Features:
+ * - Listens on localhost only
+ * - GET /generate?length=16&count=100&pool=upper,lower,numbers,special&rng=secure
+ * returns newline-separated passwords as text/plain
+ * - Small requests are generated on the handler thread into a per-thread
+ * buffer and sent with a fixed Content-Length
+ * - Large counts are generated block by block and streamed as a chunked
+ * response, so memory per request stays constant
+ * - Keep-alive connections, so clients can send request after request over
+ * one socket
+ * - 422 when every redraw of a password was in the active breach filter,
+ * instead of a body containing breached passwords
+ */
+final class PasswordServer {
+
+    static final String PATH = "/generate";
+    // Reused output buffer per handler thread; one block per write
+    private static final int BLOCK_BYTES = 256 * 1024;
+    private static final int MAX_LENGTH = 4096;
+    private static final long MAX_COUNT = 100_000_000L;
+
+    private static final ThreadLocal<byte[]> BLOCK = ThreadLocal.withInitial(() -> new byte[BLOCK_BYTES]);
+
+    static {
+        // The JDK server writes headers and body separately; with Nagle's
+        // algorithm on, every small response then waits ~40 ms for the
+        // client's delayed ACK. Read once when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PasswordServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /** Starts a server on localhost; port 0 picks a free port. */
+    static PasswordServer start(int port, int threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadId = new AtomicInteger();
+        // JDK 17 has no virtual threads; a fixed pool of handler threads is
+        // enough because each request keeps its thread busy generating
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "password-server-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, PasswordServer::handle);
+        server.start();
+        return new PasswordServer(server, executor);
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /** Runs the server until the process is killed. */
+    static int run(int port, int threads, PrintStream err) {
+        PasswordServer server;
+        try {
+            server = start(port, threads);
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        err.printf("Serving passwords on http://localhost:%d%s with %d threads%n", server.port(), PATH, threads);
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.stop();
+        return 0;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            Request request;
+            try {
+                request = Request.parse(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            respond(exchange, request);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, Request request) throws IOException {
+        PasswordEngine engine = PasswordEngine.forMask(request.mask);
+        int length = request.length;
+        int stride = length + 1;
+        byte[] block = BLOCK.get();
+        // At least 64 passwords per block even at the maximum length
+        int blockPasswords = BLOCK_BYTES / stride;
+        OutputStream body = exchange.getResponseBody();
+
+        if (request.count <= blockPasswords) {
+            // Single block: generate on this thread and send a fixed-length body
+            RandomSource rng = request.kind == RandomSource.Kind.SECURE ? RandomSource.threadSecure()
+                    : RandomSource.create(request.kind, ThreadLocalRandom.current().nextLong());
+            int n = (int) request.count;
+            try {
+                for (int i = 0, pos = 0; i < n; i++, pos += stride) {
+                    engine.regenerate(block, pos, length, rng);
+                    block[pos + length] = '\n';
+                }
+            } catch (BreachFilter.RetriesExhaustedException e) {
+                sendError(exchange, 422, e.getMessage());
+                return;
+            }
+            int bytes = n * stride;
+            exchange.sendResponseHeaders(200, bytes == 0 ? -1 : bytes);
+            body.write(block, 0, bytes);
+            return;
+        }
+
+        // The first block is generated before the headers go out, so a pool
+        // the breach filter rejects outright still gets an error status. A
+        // later failure aborts the chunked body, which clients see as an error.
+        SplittableRandom blockSeeds = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        int bytes;
+        try {
+            bytes = engine.generateBatch(block, 0, blockPasswords, length, '\n', request.kind, blockSeeds.nextLong());
+        } catch (BreachFilter.RetriesExhaustedException e) {
+            sendError(exchange, 422, e.getMessage());
+            return;
+        }
+        // Length 0 selects chunked transfer encoding
+        exchange.sendResponseHeaders(200, 0);
+        body.write(block, 0, bytes);
+        long remaining = request.count - blockPasswords;
+        while (remaining > 0) {
+            int n = (int) Math.min(blockPasswords, remaining);
+            bytes = engine.generateBatch(block, 0, n, length, '\n', request.kind, blockSeeds.nextLong());
+            body.write(block, 0, bytes);
+            remaining -= n;
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = ("Error: " + message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /** Validated query parameters of one request. */
+    static final class Request {
+        int length = 12;
+        long count = 1;
+        int mask = PasswordEngine.LOWER_BIT;
+        RandomSource.Kind kind = RandomSource.Kind.SECURE;
+
+        static Request parse(String query) {
+            Request request = new Request();
+            if (query == null || query.isEmpty()) {
+                return request;
+            }
+            for (String param : query.split("&")) {
+                int eq = param.indexOf('=');
+                String name = eq < 0 ? param : param.substring(0, eq);
+                String value = eq < 0 ? "" : URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8);
+                switch (name) {
+                    case "length":
+                        request.length = (int) parseNumber(name, value, MAX_LENGTH);
+                        if (request.length < 1) {
+                            throw new IllegalArgumentException("length must be between 1 and " + MAX_LENGTH);
+                        }
+                        break;
+                    case "count":
+                        request.count = parseNumber(name, value, MAX_COUNT);
+                        break;
+                    case "pool":
+                        request.mask = parsePool(value);
+                        break;
+                    case "rng":
+                        request.kind = RandomSource.Kind.parse(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown parameter: " + name);
+                }
+            }
+            return request;
+        }
+
+        private static long parseNumber(String name, String value, long max) {
+            try {
+                long v = Long.parseLong(value);
+                if (v < 0 || v > max) {
+                    throw new IllegalArgumentException(name + " must be between 0 and " + max);
+                }
+                return v;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+            }
+        }
+
+        private static int parsePool(String value) {
+            int mask = 0;
+            for (String cls : value.split(",")) {
+                switch (cls) {
+                    case "upper":
+                        mask |= PasswordEngine.UPPER_BIT;
+                        break;
+                    case "lower":
+                        mask |= PasswordEngine.LOWER_BIT;
+                        break;
+                    case "numbers":
+                        mask |= PasswordEngine.NUMBERS_BIT;
+                        break;
+                    case "special":
+                        mask |= PasswordEngine.SPECIAL_BIT;
+                        break;
+                    case "all":
+                        mask |= PasswordEngine.UPPER_BIT | PasswordEngine.LOWER_BIT
+                                | PasswordEngine.NUMBERS_BIT | PasswordEngine.SPECIAL_BIT;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown character type in pool: " + cls);
+                }
+            }
+            return mask;
+        }
+    }
+}
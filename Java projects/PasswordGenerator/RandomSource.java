@@ -0,0 +1,141 @@
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RandomSource - pluggable randomness for PasswordEngine
+ * Features:
+ * - SecureRandom, SplittableRandom and ThreadLocalRandom backends
+ * - SecureRandom entropy drawn in bulk blocks instead of per character
+ * - Unbiased index sampling that consumes two bytes per character (four for
+ * bounds above 65536, such as large word lists) and almost never retries
+ */
+abstract class RandomSource {
+
+    enum Kind {
+        SECURE, SPLITTABLE, THREAD_LOCAL;
+
+        static Kind parse(String name) {
+            switch (name.toLowerCase()) {
+                case "secure":
+                    return SECURE;
+                case "splittable":
+                    return SPLITTABLE;
+                case "threadlocal":
+                case "thread_local":
+                    return THREAD_LOCAL;
+                default:
+                    throw new IllegalArgumentException("Unknown random source: " + name);
+            }
+        }
+    }
+
+    // Bytes of SecureRandom output fetched per refill
+    private static final int ENTROPY_BLOCK = 4096;
+
+    private static final ThreadLocal<RandomSource> THREAD_SECURE = ThreadLocal
+            .withInitial(() -> new Secure(new SecureRandom()));
+
+    /** Returns a uniformly distributed index in {@code [0, bound)}; bound must be positive. */
+    abstract int nextIndex(int bound);
+
+    /**
+     * Creates an independent source. The seed is honoured by the splittable
+     * backend only; the other backends are not reproducible by design.
+     */
+    static RandomSource create(Kind kind, long seed) {
+        switch (kind) {
+            case SECURE:
+                return new Secure(new SecureRandom());
+            case THREAD_LOCAL:
+                return ThreadLocalSource.INSTANCE;
+            default:
+                return new Splittable(new SplittableRandom(seed));
+        }
+    }
+
+    /** Per-thread SecureRandom source, for one-off generation from the UI. */
+    static RandomSource threadSecure() {
+        return THREAD_SECURE.get();
+    }
+
+    private static final class Secure extends RandomSource {
+        private final SecureRandom random;
+        private final byte[] entropy = new byte[ENTROPY_BLOCK];
+        private int pos = ENTROPY_BLOCK;
+
+        Secure(SecureRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        int nextIndex(int bound) {
+            if (bound > 0x10000) {
+                return nextIndex32(bound);
+            }
+            // Lemire's multiply-shift on 16-bit samples: the high half of x * bound
+            // is the index, and only the low half below 65536 % bound is rejected.
+            // For password pools (< 100 characters) that is under 0.15% of draws.
+            long m = (long) next16() * bound;
+            int low = (int) (m & 0xFFFF);
+            if (low < bound) {
+                int threshold = 0x10000 % bound;
+                while (low < threshold) {
+                    m = (long) next16() * bound;
+                    low = (int) (m & 0xFFFF);
+                }
+            }
+            return (int) (m >>> 16);
+        }
+
+        private int nextIndex32(int bound) {
+            long m = (next32() & 0xFFFFFFFFL) * bound;
+            long low = m & 0xFFFFFFFFL;
+            if (low < bound) {
+                long threshold = 0x100000000L % bound;
+                while (low < threshold) {
+                    m = (next32() & 0xFFFFFFFFL) * bound;
+                    low = m & 0xFFFFFFFFL;
+                }
+            }
+            return (int) (m >>> 32);
+        }
+
+        private int next32() {
+            return (next16() << 16) | next16();
+        }
+
+        private int next16() {
+            if (pos > ENTROPY_BLOCK - 2) {
+                random.nextBytes(entropy);
+                pos = 0;
+            }
+            int v = ((entropy[pos] & 0xFF) << 8) | (entropy[pos + 1] & 0xFF);
+            pos += 2;
+            return v;
+        }
+    }
+
+    private static final class Splittable extends RandomSource {
+        private final SplittableRandom random;
+
+        Splittable(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        int nextIndex(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    private static final class ThreadLocalSource extends RandomSource {
+        static final ThreadLocalSource INSTANCE = new ThreadLocalSource();
+
+        @Override
+        int nextIndex(int bound) {
+            // Looked up per call so the shared instance is safe on any worker thread
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * StrengthEstimator - entropy-based password strength scoring
+ * Features:
+ * - Entropy in bits from the character pool a password actually uses
+ * - Repeated characters and ascending/descending runs count as ~1 bit each
+ * - Common passwords, and breached passwords when a BreachFilter is loaded,
+ * are capped at a few bits regardless of length
+ * - Settings-only scores (length x pool mask) precomputed into a lookup table
+ * Scoring never allocates, so it is safe for UI updates and bulk audits.
+ */
+final class StrengthEstimator {
+
+    // Score bands shared by the strength meter and the audit histogram
+    static final int MODERATE_THRESHOLD = 30;
+    static final int STRONG_THRESHOLD = 60;
+    static final int VERY_STRONG_THRESHOLD = 80;
+    static final String[] LABELS = { "Weak", "Moderate", "Strong", "Very Strong" };
+
+    // Entropy that maps to a full score of 100
+    private static final double FULL_SCORE_BITS = 128.0;
+    // Entropy credited to a predictable (repeated or run) character
+    private static final double PREDICTABLE_CHAR_BITS = 1.0;
+    // Entropy cap for common or breached passwords
+    private static final double DICTIONARY_BITS = 10.0;
+
+    // Lengths covered by the settings table; the UI spinner tops out at 128
+    static final int TABLE_MAX_LENGTH = 128;
+
+    private static final double[] BITS_PER_CHAR = new double[16];
+    private static final byte[][] SETTINGS_SCORE = new byte[16][TABLE_MAX_LENGTH + 1];
+
+    private static final String[] COMMON_PASSWORDS = {
+            "123456", "password", "12345678", "qwerty", "123456789", "12345", "1234", "111111",
+            "1234567", "dragon", "123123", "baseball", "abc123", "football", "monkey", "letmein",
+            "696969", "shadow", "master", "666666", "qwertyuiop", "123321", "mustang", "1234567890",
+            "michael", "654321", "superman", "1qaz2wsx", "7777777", "121212", "000000", "qazwsx",
+            "123qwe", "killer", "trustno1", "jordan", "jennifer", "zxcvbnm", "asdfgh", "hunter",
+            "buster", "soccer", "harley", "batman", "andrew", "tigger", "sunshine", "iloveyou",
+            "2000", "charlie", "robert", "thomas", "hockey", "ranger", "daniel", "starwars",
+            "klaster", "112233", "george", "computer", "michelle", "jessica", "pepper", "1111",
+            "zxcvbn", "555555", "11111111", "131313", "freedom", "777777", "pass", "maggie",
+            "159753", "aaaaaa", "ginger", "princess", "joshua", "cheese", "amanda", "summer",
+            "love", "ashley", "nicole", "chelsea", "biteme", "matthew", "access", "yankees",
+            "987654321", "dallas", "austin", "thunder", "taylor", "matrix", "admin", "welcome",
+            "login", "passw0rd", "password1", "password123", "qwerty123", "abc12345", "changeme" };
+
+    // Open-addressing table of lower-cased dictionary words
+    private static final String[] DICTIONARY;
+
+    static {
+        for (int mask = 0; mask < 16; mask++) {
+            int poolSize = PasswordEngine.forMask(mask).poolSize();
+            BITS_PER_CHAR[mask] = poolSize > 1 ? Math.log(poolSize) / Math.log(2) : 0.0;
+            for (int length = 0; length <= TABLE_MAX_LENGTH; length++) {
+                SETTINGS_SCORE[mask][length] = (byte) scoreForBits(length * BITS_PER_CHAR[mask]);
+            }
+        }
+        DICTIONARY = new String[Integer.highestOneBit(COMMON_PASSWORDS.length * 4)];
+        for (String word : COMMON_PASSWORDS) {
+            int slot = foldedHash(word) & (DICTIONARY.length - 1);
+            while (DICTIONARY[slot] != null) {
+                slot = (slot + 1) & (DICTIONARY.length - 1);
+            }
+            DICTIONARY[slot] = word;
+        }
+    }
+
+    private StrengthEstimator() {
+    }
+
+    /** Score for a password of the given length drawn uniformly from the pool. */
+    static int scoreForSettings(int length, int mask) {
+        if (length >= 0 && length <= TABLE_MAX_LENGTH) {
+            return SETTINGS_SCORE[mask][length];
+        }
+        return scoreForBits(bitsForSettings(length, mask));
+    }
+
+    static double bitsForSettings(int length, int mask) {
+        return Math.max(0, length) * BITS_PER_CHAR[mask];
+    }
+
+    static int score(CharSequence password) {
+        return scoreForBits(entropyBits(password));
+    }
+
+    /**
+     * Estimates the entropy of an actual password: every character is credited
+     * with the bits of the pool formed by the character classes present, except
+     * repeats and runs, which are nearly free for an attacker to guess.
+     */
+    static double entropyBits(CharSequence password) {
+        int length = password.length();
+        if (length == 0) {
+            return 0.0;
+        }
+        int mask = 0;
+        int predictable = 0;
+        char prev = 0;
+        int prevDelta = 0;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            mask |= classOf(c);
+            if (i > 0) {
+                int delta = c - prev;
+                if (delta == 0 || ((delta == 1 || delta == -1) && delta == prevDelta)) {
+                    predictable++;
+                }
+                prevDelta = delta;
+            }
+            prev = c;
+        }
+        double bits = (length - predictable) * BITS_PER_CHAR[mask] + predictable * PREDICTABLE_CHAR_BITS;
+        if (isCommonPassword(password) || BreachFilter.isBreached(password)) {
+            bits = Math.min(bits, DICTIONARY_BITS);
+        }
+        return bits;
+    }
+
+    static int scoreForBits(double bits) {
+        return (int) Math.min(100, Math.round(bits * 100.0 / FULL_SCORE_BITS));
+    }
+
+    /** Index into {@link #LABELS} for a score, using the strength meter bands. */
+    static int bucket(int score) {
+        if (score < MODERATE_THRESHOLD)
+            return 0;
+        if (score < STRONG_THRESHOLD)
+            return 1;
+        if (score < VERY_STRONG_THRESHOLD)
+            return 2;
+        return 3;
+    }
+
+    static String label(int score) {
+        return LABELS[bucket(score)];
+    }
+
+    static boolean isCommonPassword(CharSequence password) {
+        int slot = foldedHash(password) & (DICTIONARY.length - 1);
+        String word;
+        while ((word = DICTIONARY[slot]) != null) {
+            if (equalsIgnoreCase(word, password)) {
+                return true;
+            }
+            slot = (slot + 1) & (DICTIONARY.length - 1);
+        }
+        return false;
+    }
+
+    static int classOf(char c) {
+        if (c >= 'A' && c <= 'Z')
+            return PasswordEngine.UPPER_BIT;
+        if (c >= 'a' && c <= 'z')
+            return PasswordEngine.LOWER_BIT;
+        if (c >= '0' && c <= '9')
+            return PasswordEngine.NUMBERS_BIT;
+        // Anything else (including characters outside the generator's pools)
+        return PasswordEngine.SPECIAL_BIT;
+    }
+
+    private static int foldedHash(CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + Character.toLowerCase(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String word, CharSequence s) {
+        if (word.length() != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != Character.toLowerCase(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * UniqueBatch - removes duplicate passwords from generated batches
+ * Features:
+ * - Duplicates regenerated in place, so the batch keeps its size and layout
+ * - Exact comparison for in-memory batches, fingerprint-only for streamed
+ * blocks (see FingerprintIndex)
+ * - Reports duplicates regenerated and index memory footprint
+ */
+final class UniqueBatch {
+
+    // Exactly one of engine and plan is set
+    private final PasswordEngine engine;
+    private final PasswordPolicy.Plan plan;
+    private final FingerprintIndex index;
+    private final RandomSource rng;
+    private long duplicatesRegenerated;
+
+    UniqueBatch(PasswordEngine engine, long count, int length, RandomSource.Kind kind, long seed) {
+        this(engine, null, Math.pow(engine.poolSize(), length), count, kind, seed);
+    }
+
+    UniqueBatch(PasswordPolicy.Plan plan, long count, RandomSource.Kind kind, long seed) {
+        this(null, plan, plan.distinctPasswords(), count, kind, seed);
+    }
+
+    private UniqueBatch(PasswordEngine engine, PasswordPolicy.Plan plan, double distinct, long count,
+            RandomSource.Kind kind, long seed) {
+        // Refuse batches close to the number of distinct passwords, where
+        // regeneration would rarely find an unused one
+        if (distinct < 2.0 * count) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot generate %,d unique passwords: only about %,.0f are possible", count, distinct));
+        }
+        this.engine = engine;
+        this.plan = plan;
+        this.index = new FingerprintIndex(count);
+        this.rng = RandomSource.create(kind, seed);
+    }
+
+    /** Makes {@code count} passwords of an in-memory batch unique, comparing exactly. */
+    void dedupe(char[] out, int offset, int count, int length) {
+        FingerprintIndex.Equality equality = (a, b) -> {
+            int pa = offset + a * length;
+            int pb = offset + b * length;
+            for (int i = 0; i < length; i++) {
+                if (out[pa + i] != out[pb + i]) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        for (int n = 0, pos = offset; n < count; n++, pos += length) {
+            while (!index.addExact(FingerprintIndex.hash(out, pos, length), n, equality)) {
+                engine.regenerate(out, pos, length, rng);
+                duplicatesRegenerated++;
+            }
+        }
+    }
+
+    /**
+     * Makes the passwords of a streamed block unique against this block and
+     * every block before it; {@code stride} includes any separator.
+     */
+    void dedupe(byte[] block, int count, int length, int stride) {
+        for (int n = 0, pos = 0; n < count; n++, pos += stride) {
+            while (!index.addHash(FingerprintIndex.hash(block, pos, length))) {
+                if (plan != null) {
+                    plan.regenerate(block, pos, rng);
+                } else {
+                    engine.regenerate(block, pos, length, rng);
+                }
+                duplicatesRegenerated++;
+            }
+        }
+    }
+
+    long duplicatesRegenerated() {
+        return duplicatesRegenerated;
+    }
+
+    long fingerprintCollisions() {
+        return index.fingerprintCollisions();
+    }
+
+    long indexBytes() {
+        return index.memoryBytes();
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * WordList - memory-mapped word list for passphrase generation
+ * Features:
+ * - The file stays mapped; words are never decoded into Strings
+ * - One pass builds a primitive offset/length index of every word
+ * - Accepts plain one-word-per-line lists and diceware lists
+ * ("11111 word" or "11111\tword"), using the last field of each line
+ */
+final class WordList {
+
+    private final MappedByteBuffer data;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int size;
+    private final int maxWordLength;
+
+    private WordList(MappedByteBuffer data, int[] offsets, int[] lengths, int size, int maxWordLength) {
+        this.data = data;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.size = size;
+        this.maxWordLength = maxWordLength;
+    }
+
+    static WordList load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Word list too large: " + file);
+            }
+            int fileSize = (int) channel.size();
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            // Sized from a typical word length and grown if needed
+            int[] offsets = new int[Math.max(16, fileSize / 6)];
+            int[] lengths = new int[offsets.length];
+            int size = 0;
+            int maxWordLength = 0;
+            int lineStart = 0;
+            for (int i = 0; i <= fileSize; i++) {
+                if (i == fileSize || data.get(i) == '\n') {
+                    int end = i;
+                    while (end > lineStart && isBlank(data.get(end - 1))) {
+                        end--;
+                    }
+                    int start = end;
+                    while (start > lineStart && !isBlank(data.get(start - 1))) {
+                        start--;
+                    }
+                    if (end > start) {
+                        if (size == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, size * 2);
+                            lengths = Arrays.copyOf(lengths, size * 2);
+                        }
+                        offsets[size] = start;
+                        lengths[size] = end - start;
+                        maxWordLength = Math.max(maxWordLength, end - start);
+                        size++;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            if (size < 2) {
+                throw new IOException("Word list needs at least two words: " + file);
+            }
+            return new WordList(data, offsets, lengths, size, maxWordLength);
+        }
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    int size() {
+        return size;
+    }
+
+    int maxWordLength() {
+        return maxWordLength;
+    }
+
+    int wordLength(int index) {
+        return lengths[index];
+    }
+
+    /** Copies word {@code index} into {@code out} at {@code pos}; returns its length. */
+    int copyWord(int index, byte[] out, int pos) {
+        int length = lengths[index];
+        // Absolute bulk get keeps the shared buffer's position untouched, so
+        // worker threads can copy concurrently
+        data.get(offsets[index], out, pos, length);
+        return length;
+    }
+
+    /** Entropy of one uniformly chosen word, in bits. */
+    double bitsPerWord() {
+        return Math.log(size) / Math.log(2);
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.Arrays;
+import javax.swing.AbstractListModel;
+
+/**
+ * AlarmListModel - pending countdowns and alarms, scheduled on a TimingWheel
+ * Features:
+ * - One wheel holds every alarm, so tens of thousands pending cost no more
+ * per tick than one; the owner advances it from a single Swing timer
+ * - Adding, cancelling and firing are O(1): rows are removed by moving the
+ * last row into the gap, so pending alarms are listed in no fixed order
+ * - Remaining time is formatted on demand, only for rows on screen
+ * Deadlines are System.nanoTime values: an alarm set for a time of day is
+ * converted once when added and does not follow later wall-clock changes.
+ * Use on the event dispatch thread only.
+ */
+final class AlarmListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int LABEL_COLUMNS = 24;
+
+    private final transient TimingWheel wheel;
+    private Alarm[] rows = new Alarm[64];
+    private int size;
+    private String lastFired;
+    private final transient ElapsedFormatter formatter = new ElapsedFormatter(0);
+    private final StringBuilder row = new StringBuilder(64);
+
+    AlarmListModel(long tickNanos) {
+        wheel = new TimingWheel(tickNanos, System.nanoTime());
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        Alarm alarm = rows[index];
+        row.setLength(0);
+        row.append(alarm.label);
+        while (row.length() < LABEL_COLUMNS) {
+            row.append(' ');
+        }
+        // Whole seconds, rounded up: a countdown reads 00:00:00 only when done
+        long remaining = alarm.deadlineNanos - System.nanoTime();
+        formatter.format((remaining + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND * NANOS_PER_SECOND);
+        row.append(formatter.chars(), 0, formatter.length());
+        return row.toString();
+    }
+
+    /** Schedules {@code label} to fire at {@code deadlineNanos} (System.nanoTime). */
+    void add(String label, long deadlineNanos) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        Alarm alarm = new Alarm(label, deadlineNanos, size);
+        rows[size++] = alarm;
+        alarm.handle = wheel.schedule(deadlineNanos, alarm);
+        fireIntervalAdded(this, alarm.row, alarm.row);
+    }
+
+    void cancel(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Alarm " + index + " of " + size);
+        }
+        wheel.cancel(rows[index].handle);
+        remove(index);
+    }
+
+    /** Fires the alarms due by {@code nowNanos}; returns how many fired. */
+    int advance(long nowNanos) {
+        return wheel.advance(nowNanos);
+    }
+
+    /** Label of the most recently fired alarm, or null if none has fired. */
+    String lastFired() {
+        return lastFired;
+    }
+
+    private void remove(int index) {
+        int last = --size;
+        if (index != last) {
+            rows[index] = rows[last];
+            rows[index].row = index;
+        }
+        rows[last] = null;
+        if (index != last) {
+            fireContentsChanged(this, index, index);
+        }
+        fireIntervalRemoved(this, last, last);
+    }
+
+    private final class Alarm implements Runnable {
+        final String label;
+        final long deadlineNanos;
+        long handle;
+        int row;
+
+        Alarm(String label, long deadlineNanos, int row) {
+            this.label = label;
+            this.deadlineNanos = deadlineNanos;
+            this.row = row;
+        }
+
+        @Override
+        public void run() {
+            lastFired = label;
+            remove(row);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import javax.swing.JComponent;
+
+/**
+ * DigitDisplay - fixed-pitch text display that repaints only changed cells
+ * Features:
+ * - Text is copied into a reused char[]; updating it allocates nothing
+ * - Each update requests a repaint of just the span of character cells
+ * that differ, instead of relaying out and repainting a whole JLabel
+ * - Paints only the cells inside the clip
+ * Use with a monospaced font.
+ */
+final class DigitDisplay extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    private char[] text = new char[32];
+    private int length;
+    // Cells reserved in the preferred size so the layout stays put
+    private int columns;
+
+    DigitDisplay(String initial, Font font) {
+        setFont(font);
+        setOpaque(false);
+        columns = initial.length();
+        setText(initial.toCharArray(), initial.length());
+    }
+
+    /** Shows the first {@code count} characters of {@code chars}. */
+    void setText(char[] chars, int count) {
+        if (count > text.length) {
+            text = Arrays.copyOf(text, Math.max(count, text.length * 2));
+        }
+        if (count != length) {
+            System.arraycopy(chars, 0, text, 0, count);
+            length = count;
+            if (count > columns) {
+                columns = count;
+                revalidate();
+            }
+            repaint();
+            return;
+        }
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            if (text[i] != chars[i]) {
+                text[i] = chars[i];
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+        if (first >= 0) {
+            FontMetrics metrics = getFontMetrics(getFont());
+            int cell = metrics.charWidth('0');
+            repaint(textX(cell) + first * cell, 0, (last - first + 1) * cell, getHeight());
+        }
+    }
+
+    /** Reserves room for {@code count} characters, e.g. when switching resolution. */
+    void setColumns(int count) {
+        if (count != columns) {
+            columns = count;
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(text, 0, length);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        FontMetrics metrics = getFontMetrics(getFont());
+        return new Dimension(columns * metrics.charWidth('0') + 4, metrics.getHeight());
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setFont(getFont());
+        g.setColor(getForeground());
+        FontMetrics metrics = g.getFontMetrics();
+        int cell = metrics.charWidth('0');
+        int x = textX(cell);
+        Rectangle clip = g.getClipBounds();
+        int first = 0;
+        int last = length - 1;
+        if (clip != null) {
+            first = Math.max(0, (clip.x - x) / cell);
+            last = Math.min(length - 1, (clip.x + clip.width - x) / cell);
+        }
+        if (first <= last) {
+            g.drawChars(text, first, last - first + 1, x + first * cell, metrics.getAscent());
+        }
+    }
+
+    // Text is centred in the component
+    private int textX(int cell) {
+        return Math.max(0, (getWidth() - length * cell) / 2);
+    }
+}
@@ -0,0 +1,226 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * DurationHistogram - fixed-size log-linear histogram of durations in
+ * nanoseconds
+ * Features:
+ * - Same bucket layout as HdrHistogram: values are kept to a configurable
+ * number of significant decimal digits across the whole range
+ * - Memory depends only on range and precision, never on the sample count
+ * - Recording is O(1): one leading-zero count, a shift and an increment
+ * - Percentiles from a single pass over the buckets
+ * - Buckets can be walked for export, and the whole histogram encoded in
+ * HdrHistogram's compressed V2 format for its log files and tools
+ * Not thread-safe: use one instance per writer.
+ */
+final class DurationHistogram {
+
+    // HdrHistogram V2 encoding cookies, with the word-size nibble that marks
+    // zero-run-length-encoded counts
+    private static final int ENCODING_COOKIE = 0x1c849303 | 0x10;
+    private static final int COMPRESSED_ENCODING_COOKIE = 0x1c849304 | 0x10;
+    private static final int ENCODING_HEADER_SIZE = 40;
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] counts;
+
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Tracks 0..{@code highestTrackableValue} with {@code significantDigits}
+     * (1-5) decimal digits of precision; larger values are clamped.
+     */
+    DurationHistogram(long highestTrackableValue, int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("Significant digits must be between 1 and 5");
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("Highest trackable value must be at least 2");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1);
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        // Buckets double in range; count how many cover the highest value
+        int buckets = 1;
+        long smallestUntrackable = subBucketCount;
+        while (smallestUntrackable <= highestTrackableValue && smallestUntrackable <= Long.MAX_VALUE / 2) {
+            smallestUntrackable <<= 1;
+            buckets++;
+        }
+        this.counts = new long[(buckets + 1) * subBucketHalfCount];
+    }
+
+    void record(long value) {
+        long v = Math.min(Math.max(0, value), highestTrackableValue);
+        counts[indexOf(v)]++;
+        totalCount++;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    long totalCount() {
+        return totalCount;
+    }
+
+    long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    long max() {
+        return max;
+    }
+
+    long highestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Value at or below which {@code percentile} percent of the recorded
+     * values fall, to the histogram's precision; 0 when empty.
+     */
+    long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double p = Math.min(Math.max(percentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(p / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(Math.max(highestEquivalentValue(i), min), max);
+            }
+        }
+        return max;
+    }
+
+    /** Number of buckets, the valid indices for the accessors below. */
+    int bucketCount() {
+        return counts.length;
+    }
+
+    long countAt(int index) {
+        return counts[index];
+    }
+
+    /** Smallest value that is counted in bucket {@code index}. */
+    long lowestEquivalentValue(int index) {
+        int bucket = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucket = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucket < 0) {
+            subBucket -= subBucketHalfCount;
+            bucket = 0;
+        }
+        return (long) subBucket << bucket;
+    }
+
+    /** Largest value that is counted in bucket {@code index}. */
+    long highestEquivalentValue(int index) {
+        int bucket = Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+        return lowestEquivalentValue(index) + (1L << bucket) - 1;
+    }
+
+    /**
+     * Encodes the histogram as HdrHistogram's compressed V2 format: a zlib
+     * deflated header plus ZigZag LEB128 counts, with runs of empty buckets
+     * collapsed. Only buckets up to the maximum value are written.
+     */
+    byte[] encodeCompressed() {
+        int relevantLength = indexOf(max) + 1;
+        ByteBuffer raw = ByteBuffer.allocate(ENCODING_HEADER_SIZE + relevantLength * 9);
+        raw.putInt(ENCODING_COOKIE)
+                .putInt(0) // payload length, filled in below
+                .putInt(0) // normalizing index offset
+                .putInt(significantDigits)
+                .putLong(1) // lowest discernible value
+                .putLong(highestTrackableValue)
+                .putDouble(1.0); // integer to double conversion ratio
+        for (int i = 0; i < relevantLength;) {
+            long count = counts[i++];
+            if (count == 0) {
+                int zeros = 1;
+                while (i < relevantLength && counts[i] == 0) {
+                    zeros++;
+                    i++;
+                }
+                if (zeros > 1) {
+                    putZigZag(raw, -zeros);
+                    continue;
+                }
+            }
+            putZigZag(raw, count);
+        }
+        raw.putInt(4, raw.position() - ENCODING_HEADER_SIZE);
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw.array(), 0, raw.position());
+            deflater.finish();
+            byte[] out = new byte[8 + raw.position() + 64];
+            int length = 8;
+            while (true) {
+                length += deflater.deflate(out, length, out.length - length);
+                if (deflater.finished()) {
+                    break;
+                }
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            ByteBuffer.wrap(out).putInt(COMPRESSED_ENCODING_COOKIE).putInt(length - 8);
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    long memoryBytes() {
+        return counts.length * 8L;
+    }
+
+    private int indexOf(long value) {
+        int bucket = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucket = (int) (value >>> bucket);
+        return ((bucket + 1) << subBucketHalfCountMagnitude) + (subBucket - subBucketHalfCount);
+    }
+
+    // HdrHistogram's variant of LEB128: at most nine bytes, the ninth
+    // carrying a full eight bits
+    private static void putZigZag(ByteBuffer buffer, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        for (int i = 0; i < 8; i++) {
+            if ((v >>> 7) == 0) {
+                buffer.put((byte) v);
+                return;
+            }
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+}
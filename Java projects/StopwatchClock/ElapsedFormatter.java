@@ -0,0 +1,115 @@
+/**
+ * ElapsedFormatter - allocation-free HH:MM:SS.fff formatting of elapsed time
+ * Features:
+ * - Digits are written into one reused char[]; nothing is allocated per call
+ * - Only the digits that differ from the previous value are rewritten, and
+ * the position of the first changed character is reported so callers can
+ * skip or limit repaints
+ * - 0 to 9 fraction-of-second digits; hours widen past 99 as needed
+ * Not thread-safe: use one instance per display.
+ */
+final class ElapsedFormatter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L, 1_000_000_000L };
+    // Hours digits for Long.MAX_VALUE nanoseconds
+    private static final int MAX_HOUR_DIGITS = 7;
+
+    private final char[] chars = new char[MAX_HOUR_DIGITS + ":MM:SS.".length() + 9];
+    private final int fractionDigits;
+    private int length;
+    private int hourDigits;
+    private long lastSeconds = -1;
+    private long lastFraction = -1;
+
+    ElapsedFormatter(int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits > 9) {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and 9");
+        }
+        this.fractionDigits = fractionDigits;
+    }
+
+    int fractionDigits() {
+        return fractionDigits;
+    }
+
+    /**
+     * Formats {@code elapsedNanos} into the buffer. Returns the index of the
+     * first character that changed, or -1 if the text is unchanged.
+     */
+    int format(long elapsedNanos) {
+        long nanos = Math.max(0, elapsedNanos);
+        long seconds = nanos / NANOS_PER_SECOND;
+        long fraction = (nanos % NANOS_PER_SECOND) / POWERS_OF_TEN[9 - fractionDigits];
+        if (seconds == lastSeconds && fraction == lastFraction) {
+            return -1;
+        }
+        int firstChanged = Integer.MAX_VALUE;
+        if (seconds != lastSeconds) {
+            long hours = seconds / 3600;
+            int digits = Math.max(2, digitCount(hours));
+            if (digits != hourDigits) {
+                // Layout shifts: rewrite everything, separators included
+                hourDigits = digits;
+                length = digits + 6 + (fractionDigits > 0 ? 1 + fractionDigits : 0);
+                chars[digits] = ':';
+                chars[digits + 3] = ':';
+                if (fractionDigits > 0) {
+                    chars[digits + 6] = '.';
+                }
+                lastFraction = -1;
+                firstChanged = 0;
+                writeDigits(hours, 0, digits);
+            } else {
+                firstChanged = writeDigits(hours, 0, digits);
+            }
+            firstChanged = Math.min(firstChanged, writeDigits((seconds % 3600) / 60, digits + 1, 2));
+            firstChanged = Math.min(firstChanged, writeDigits(seconds % 60, digits + 4, 2));
+            lastSeconds = seconds;
+        }
+        if (fraction != lastFraction && fractionDigits > 0) {
+            firstChanged = Math.min(firstChanged, writeDigits(fraction, hourDigits + 7, fractionDigits));
+        }
+        lastFraction = fraction;
+        return firstChanged == Integer.MAX_VALUE ? -1 : firstChanged;
+    }
+
+    /** The formatted text; valid until the next call to {@link #format}. */
+    char[] chars() {
+        return chars;
+    }
+
+    int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    // Writes value as exactly width digits at pos, right to left; returns the
+    // first index whose character changed, or Integer.MAX_VALUE
+    private int writeDigits(long value, int pos, int width) {
+        int firstChanged = Integer.MAX_VALUE;
+        for (int i = pos + width - 1; i >= pos; i--) {
+            char c = (char) ('0' + value % 10);
+            value /= 10;
+            if (chars[i] != c) {
+                chars[i] = c;
+                firstChanged = i;
+            }
+        }
+        return firstChanged;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,155 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * LapExport - writes a recorded run's laps for analysis tools
+ * Features:
+ * - CSV: one row per lap with its duration and split, in nanoseconds
+ * - JSON: lap and split summaries, percentiles and the non-empty histogram
+ * buckets, followed by every lap
+ * - HdrHistogram log (.hlog): the lap and split histograms as tagged,
+ * compressed intervals that HdrHistogram's log readers and plotters accept
+ * - Everything streams straight from the LapStore to the writer; nothing
+ * is copied per lap, and histogram output is the same size for any count
+ */
+final class LapExport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private LapExport() {
+    }
+
+    /**
+     * Writes {@code laps} to {@code file} in the format named by its
+     * extension: .csv, .json or .hlog. {@code startMillis} is the wall-clock
+     * time the run started, recorded in the histogram log.
+     */
+    static void export(LapStore laps, Path file, long startMillis) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (!name.endsWith(".csv") && !name.endsWith(".json") && !name.endsWith(".hlog")) {
+            throw new IllegalArgumentException("Unsupported export format, use .csv, .json or .hlog: " + name);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (name.endsWith(".csv")) {
+                writeCsv(laps, out);
+            } else if (name.endsWith(".json")) {
+                writeJson(laps, out);
+            } else {
+                writeHistogramLog(laps, startMillis, out);
+            }
+        }
+    }
+
+    static void writeCsv(LapStore laps, Writer out) throws IOException {
+        out.write("lap,lap_ns,split_ns\n");
+        for (int i = 0; i < laps.size(); i++) {
+            out.write(Integer.toString(i + 1));
+            out.write(',');
+            out.write(Long.toString(laps.lap(i)));
+            out.write(',');
+            out.write(Long.toString(laps.split(i)));
+            out.write('\n');
+        }
+    }
+
+    static void writeJson(LapStore laps, Writer out) throws IOException {
+        out.write("{\n  \"unit\": \"ns\",\n  \"count\": ");
+        out.write(Integer.toString(laps.size()));
+        out.write(",\n  \"lap\": {\n    \"mean\": ");
+        out.write(formatDouble(laps.mean()));
+        out.write(",\n    \"stddev\": ");
+        out.write(formatDouble(laps.standardDeviation()));
+        out.write(",\n");
+        writeJsonHistogram(laps.histogram(), out);
+        out.write("  },\n  \"split\": {\n");
+        writeJsonHistogram(laps.splitHistogram(), out);
+        out.write("  },\n  \"laps\": [");
+        for (int i = 0; i < laps.size(); i++) {
+            out.write(i == 0 ? "\n    [" : ",\n    [");
+            out.write(Integer.toString(i + 1));
+            out.write(", ");
+            out.write(Long.toString(laps.lap(i)));
+            out.write(", ");
+            out.write(Long.toString(laps.split(i)));
+            out.write(']');
+        }
+        out.write(laps.size() == 0 ? "]\n}\n" : "\n  ]\n}\n");
+    }
+
+    // Summary fields, percentiles and [lowest, highest, count] per bucket
+    private static void writeJsonHistogram(DurationHistogram histogram, Writer out) throws IOException {
+        out.write("    \"min\": ");
+        out.write(Long.toString(histogram.min()));
+        out.write(",\n    \"max\": ");
+        out.write(Long.toString(histogram.max()));
+        out.write(",\n    \"percentiles\": {");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            out.write(i == 0 ? " \"" : ", \"");
+            double p = PERCENTILES[i];
+            out.write(p == Math.rint(p) ? Long.toString((long) p) : Double.toString(p));
+            out.write("\": ");
+            out.write(Long.toString(histogram.percentile(PERCENTILES[i])));
+        }
+        out.write(" },\n    \"histogram\": {\n      \"significantDigits\": ");
+        out.write(Integer.toString(histogram.significantDigits()));
+        out.write(",\n      \"highestTrackableValue\": ");
+        out.write(Long.toString(histogram.highestTrackableValue()));
+        out.write(",\n      \"buckets\": [");
+        boolean first = true;
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            long count = histogram.countAt(i);
+            if (count == 0) {
+                continue;
+            }
+            out.write(first ? "\n        [" : ",\n        [");
+            first = false;
+            out.write(Long.toString(histogram.lowestEquivalentValue(i)));
+            out.write(", ");
+            out.write(Long.toString(histogram.highestEquivalentValue(i)));
+            out.write(", ");
+            out.write(Long.toString(count));
+            out.write(']');
+        }
+        out.write(first ? "]\n    }\n" : "\n      ]\n    }\n");
+    }
+
+    /**
+     * Writes the lap and split histograms as one interval each, tagged
+     * "laps" and "splits", in HdrHistogram log format 1.3. The interval
+     * spans the run up to its last split; Interval_Max is in milliseconds,
+     * as HdrHistogram's own log writer reports nanosecond histograms.
+     */
+    static void writeHistogramLog(LapStore laps, long startMillis, Writer out) throws IOException {
+        out.write("#[Histogram log format version 1.3]\n");
+        out.write(String.format(Locale.ROOT, "#[StartTime: %.3f (seconds since epoch), %s]\n",
+                startMillis / 1000.0, new Date(startMillis)));
+        out.write("#[Stopwatch laps and splits, values in nanoseconds]\n");
+        out.write("\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\",\"Interval_Compressed_Histogram\"\n");
+        double length = laps.size() == 0 ? 0 : laps.split(laps.size() - 1) / NANOS_PER_SECOND;
+        writeInterval("laps", laps.histogram(), length, out);
+        writeInterval("splits", laps.splitHistogram(), length, out);
+    }
+
+    private static void writeInterval(String tag, DurationHistogram histogram, double length, Writer out)
+            throws IOException {
+        out.write(String.format(Locale.ROOT, "Tag=%s,%.3f,%.3f,%.3f,", tag, 0.0, length,
+                histogram.max() / NANOS_PER_MILLI));
+        out.write(Base64.getEncoder().encodeToString(histogram.encodeCompressed()));
+        out.write('\n');
+    }
+
+    private static String formatDouble(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
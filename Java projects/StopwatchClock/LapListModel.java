@@ -0,0 +1,67 @@
+import javax.swing.AbstractListModel;
+
+/**
+ * LapListModel - list model that presents a LapStore without copying it
+ * Features:
+ * - Rows are formatted on demand, so a JList with a fixed cell size only
+ * ever formats the laps that are on screen
+ * - Appends and clears fire single interval events
+ */
+final class LapListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LapStore laps;
+    private transient ElapsedFormatter formatter = new ElapsedFormatter(3);
+    private final StringBuilder row = new StringBuilder(64);
+
+    LapListModel(LapStore laps) {
+        this.laps = laps;
+    }
+
+    @Override
+    public int getSize() {
+        return laps.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        row.setLength(0);
+        row.append(index + 1);
+        while (row.length() < 8) {
+            row.append(' ');
+        }
+        formatter.format(laps.lap(index));
+        row.append(formatter.chars(), 0, formatter.length()).append("   ");
+        formatter.format(laps.split(index));
+        row.append(formatter.chars(), 0, formatter.length());
+        return row.toString();
+    }
+
+    void setFractionDigits(int digits) {
+        formatter = new ElapsedFormatter(digits);
+        if (laps.size() > 0) {
+            fireContentsChanged(this, 0, laps.size() - 1);
+        }
+    }
+
+    /** Call after appending to the store. */
+    void lapAdded() {
+        int last = laps.size() - 1;
+        fireIntervalAdded(this, last, last);
+    }
+
+    /** Call after filling an empty store in bulk, e.g. from a saved session. */
+    void loaded() {
+        if (laps.size() > 0) {
+            fireIntervalAdded(this, 0, laps.size() - 1);
+        }
+    }
+
+    /** Call after clearing the store; {@code previousSize} is its size before. */
+    void cleared(int previousSize) {
+        if (previousSize > 0) {
+            fireIntervalRemoved(this, 0, previousSize - 1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.Arrays;
+
+/**
+ * LapStore - append-only record of stopwatch splits and laps
+ * Features:
+ * - Splits (elapsed time at each lap press) kept in a growable long[];
+ * lap durations are derived from consecutive splits, so nothing is boxed
+ * - Min, max, mean and standard deviation of lap durations maintained
+ * incrementally (Welford's algorithm) as each lap is added
+ * - Laps and splits each also recorded in a fixed-size DurationHistogram,
+ * for percentiles and export whatever the number of laps
+ * Not thread-safe: laps are added by a single writer.
+ */
+final class LapStore {
+
+    // Durations above this are clamped in the histograms (24 hours for a
+    // lap, 30 days for a split)
+    private static final long HISTOGRAM_MAX_NANOS = 24L * 3600 * 1_000_000_000L;
+    private static final long SPLIT_HISTOGRAM_MAX_NANOS = 30 * HISTOGRAM_MAX_NANOS;
+    private static final int HISTOGRAM_DIGITS = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] splits = new long[INITIAL_CAPACITY];
+    private int size;
+    private final DurationHistogram histogram = new DurationHistogram(HISTOGRAM_MAX_NANOS, HISTOGRAM_DIGITS);
+    private final DurationHistogram splitHistogram = new DurationHistogram(SPLIT_HISTOGRAM_MAX_NANOS,
+            HISTOGRAM_DIGITS);
+
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean;
+    private double sumSquaredDeviations;
+
+    /** Records a lap ending at {@code splitNanos} elapsed; returns the lap duration. */
+    long addSplit(long splitNanos) {
+        if (size == splits.length) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Lap store is full");
+            }
+            splits = Arrays.copyOf(splits, (int) Math.min(Integer.MAX_VALUE - 8, size * 2L));
+        }
+        long lap = splitNanos - (size == 0 ? 0 : splits[size - 1]);
+        splits[size++] = splitNanos;
+
+        min = Math.min(min, lap);
+        max = Math.max(max, lap);
+        double delta = lap - mean;
+        mean += delta / size;
+        sumSquaredDeviations += delta * (lap - mean);
+        histogram.record(lap);
+        splitHistogram.record(splitNanos);
+        return lap;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Elapsed time when lap {@code index} ended. */
+    long split(int index) {
+        checkIndex(index);
+        return splits[index];
+    }
+
+    /** Duration of lap {@code index}. */
+    long lap(int index) {
+        checkIndex(index);
+        return splits[index] - (index == 0 ? 0 : splits[index - 1]);
+    }
+
+    long min() {
+        return size == 0 ? 0 : min;
+    }
+
+    long max() {
+        return size == 0 ? 0 : max;
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    /** Sample standard deviation of the lap durations. */
+    double standardDeviation() {
+        return size < 2 ? 0 : Math.sqrt(sumSquaredDeviations / (size - 1));
+    }
+
+    long percentile(double percentile) {
+        return histogram.percentile(percentile);
+    }
+
+    /** Histogram of the lap durations. */
+    DurationHistogram histogram() {
+        return histogram;
+    }
+
+    /** Histogram of the splits, the elapsed time at each lap. */
+    DurationHistogram splitHistogram() {
+        return splitHistogram;
+    }
+
+    void clear() {
+        if (splits.length > INITIAL_CAPACITY) {
+            splits = new long[INITIAL_CAPACITY];
+        }
+        size = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+        mean = 0;
+        sumSquaredDeviations = 0;
+        histogram.reset();
+        splitHistogram.reset();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Lap " + index + " of " + size);
+        }
+    }
+}
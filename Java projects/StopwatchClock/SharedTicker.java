@@ -0,0 +1,136 @@
+import java.awt.Component;
+import java.awt.DisplayMode;
+import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowStateListener;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * SharedTicker - one Swing timer that drives every live display
+ * Features:
+ * - Displays subscribe a tick callback instead of owning a Timer each
+ * - Ticks at the refresh rate of the screen, so no frame is computed that
+ * the display could never show
+ * - The timer only runs while at least one display is subscribed
+ * - Bindings subscribe a component only while it is wanted, showing and
+ * its window is not iconified
+ * - Ticks arrive on the event dispatch thread and are coalesced by Swing
+ * when the EDT falls behind
+ * Subscribe and unsubscribe on the event dispatch thread only.
+ */
+final class SharedTicker {
+
+    // Used when the refresh rate is unknown or there is no screen
+    private static final int DEFAULT_REFRESH_HZ = 60;
+
+    static final int INTERVAL_MS = Math.max(1, Math.round(1000f / refreshRate()));
+
+    private static final List<Runnable> SUBSCRIBERS = new ArrayList<>();
+    private static final Timer TIMER = new Timer(INTERVAL_MS, e -> tick());
+
+    private SharedTicker() {
+    }
+
+    static void subscribe(Runnable subscriber) {
+        if (!SUBSCRIBERS.contains(subscriber)) {
+            SUBSCRIBERS.add(subscriber);
+        }
+        if (!TIMER.isRunning()) {
+            TIMER.start();
+        }
+    }
+
+    static void unsubscribe(Runnable subscriber) {
+        SUBSCRIBERS.remove(subscriber);
+        if (SUBSCRIBERS.isEmpty()) {
+            TIMER.stop();
+        }
+    }
+
+    static boolean isSubscribed(Runnable subscriber) {
+        return SUBSCRIBERS.contains(subscriber);
+    }
+
+    private static void tick() {
+        // Indexed loop: a subscriber may unsubscribe itself while ticking
+        for (int i = SUBSCRIBERS.size() - 1; i >= 0; i--) {
+            if (i < SUBSCRIBERS.size()) {
+                SUBSCRIBERS.get(i).run();
+            }
+        }
+    }
+
+    private static int refreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_REFRESH_HZ;
+        }
+        DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode();
+        int rate = mode.getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_HZ : rate;
+    }
+
+    /**
+     * Subscribes {@code tick} while it is wanted and {@code component} is on
+     * screen: showing, with a window that is not iconified. The tick runs
+     * once on resuming so the display catches up immediately.
+     */
+    static final class Binding {
+        private final Component component;
+        private final Runnable tick;
+        private final WindowStateListener windowListener = this::windowStateChanged;
+        private Window window;
+        private boolean wanted;
+
+        Binding(Component component, Runnable tick) {
+            this.component = component;
+            this.tick = tick;
+            component.addHierarchyListener(e -> {
+                if ((e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED)) != 0) {
+                    trackWindow();
+                    update();
+                }
+            });
+        }
+
+        void setWanted(boolean wanted) {
+            this.wanted = wanted;
+            update();
+        }
+
+        private void trackWindow() {
+            Window current = SwingUtilities.getWindowAncestor(component);
+            if (current != window) {
+                if (window != null) {
+                    window.removeWindowStateListener(windowListener);
+                }
+                window = current;
+                if (window != null) {
+                    window.addWindowStateListener(windowListener);
+                }
+            }
+        }
+
+        private void windowStateChanged(WindowEvent e) {
+            update();
+        }
+
+        private void update() {
+            boolean iconified = window instanceof Frame
+                    && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+            boolean active = wanted && component.isShowing() && !iconified;
+            if (active && !isSubscribed(tick)) {
+                subscribe(tick);
+                tick.run();
+            } else if (!active && isSubscribed(tick)) {
+                unsubscribe(tick);
+            }
+        }
+    }
+}
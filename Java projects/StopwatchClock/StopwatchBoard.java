@@ -0,0 +1,91 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * StopwatchBoard - many named stopwatches in struct-of-arrays form
+ * Features:
+ * - One long of state per stopwatch in a shared AtomicLongArray, using the
+ * StopwatchCore encoding, plus a parallel array of names
+ * - Start/stop/reset are lock-free and can be called from any thread, for
+ * example one per job in a test run
+ * - Readers take one nanoTime per frame and derive every elapsed value
+ * from it, so rendering n stopwatches costs n array reads
+ */
+final class StopwatchBoard {
+
+    private final long base = System.nanoTime();
+    private final AtomicLongArray states;
+    private final String[] names;
+    // Published after the name is written, so readers below size see it
+    private final AtomicInteger size = new AtomicInteger();
+
+    StopwatchBoard(int capacity) {
+        this.states = new AtomicLongArray(capacity);
+        this.names = new String[capacity];
+    }
+
+    /** Adds a stopped stopwatch and returns its id. */
+    synchronized int add(String name) {
+        int id = size.get();
+        if (id == names.length) {
+            throw new IllegalStateException("Stopwatch board is full (" + names.length + ")");
+        }
+        names[id] = name;
+        size.set(id + 1);
+        return id;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return names.length;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    void start(int id) {
+        long s;
+        do {
+            s = states.get(id);
+            if (StopwatchCore.isRunning(s)) {
+                return;
+            }
+        } while (!states.compareAndSet(id, s, StopwatchCore.started(s, ticks())));
+    }
+
+    void stop(int id) {
+        long s;
+        do {
+            s = states.get(id);
+            if (!StopwatchCore.isRunning(s)) {
+                return;
+            }
+        } while (!states.compareAndSet(id, s, StopwatchCore.stopped(s, ticks())));
+    }
+
+    void reset(int id) {
+        states.set(id, 0);
+    }
+
+    boolean isRunning(int id) {
+        return StopwatchCore.isRunning(states.get(id));
+    }
+
+    long elapsedNanos(int id) {
+        return elapsedNanos(id, ticks());
+    }
+
+    /** Elapsed time of {@code id} at {@code ticks}, as returned by {@link #ticks()}. */
+    long elapsedNanos(int id, long ticks) {
+        return StopwatchCore.elapsed(states.get(id), ticks);
+    }
+
+    /** Current time on this board's clock; read once per frame. */
+    long ticks() {
+        return System.nanoTime() - base;
+    }
+}
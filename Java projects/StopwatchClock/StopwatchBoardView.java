@@ -0,0 +1,151 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.BitSet;
+import javax.swing.JComponent;
+
+/**
+ * StopwatchBoardView - one component that paints every stopwatch on a board
+ * Features:
+ * - Driven by the SharedTicker; no per-stopwatch timers or components, and
+ * no ticks at all while the board window is hidden or minimized
+ * - Each tick formats only the rows inside the viewport and issues a single
+ * repaint covering just the digits that changed across all of them
+ * - Painting draws what the last tick formatted, so a partial repaint can
+ * never leave a digit on screen that the formatter believes is current
+ * - Click a row to start or stop it; double-click to reset it
+ */
+final class StopwatchBoardView extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+    private static final int ROW_HEIGHT = 24;
+    private static final int PADDING = 10;
+    private static final int ELAPSED_WIDTH_CHARS = 13;
+
+    private final transient StopwatchBoard board;
+    private final transient ElapsedFormatter[] formatters;
+    private final BitSet shownRunning = new BitSet();
+    private final Color runningColor;
+    private final Color stoppedColor;
+    private int knownRows;
+
+    StopwatchBoardView(StopwatchBoard board, Color background, Color runningColor, Color stoppedColor) {
+        this.board = board;
+        this.formatters = new ElapsedFormatter[board.capacity()];
+        this.runningColor = runningColor;
+        this.stoppedColor = stoppedColor;
+        setBackground(background);
+        setOpaque(true);
+        setFont(new Font("Monospaced", Font.BOLD, 16));
+        new SharedTicker.Binding(this, this::tick).setWanted(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = e.getY() / ROW_HEIGHT;
+                if (row >= board.size()) {
+                    return;
+                }
+                if (e.getClickCount() == 2) {
+                    board.reset(row);
+                } else if (board.isRunning(row)) {
+                    board.stop(row);
+                } else {
+                    board.start(row);
+                }
+                // The next tick picks up the change
+            }
+        });
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(480, Math.max(1, board.size()) * ROW_HEIGHT);
+    }
+
+    private void tick() {
+        int size = board.size();
+        if (size != knownRows) {
+            knownRows = size;
+            revalidate();
+            repaint();
+            return;
+        }
+        Rectangle visible = getVisibleRect();
+        if (visible.isEmpty() || size == 0) {
+            return;
+        }
+        int first = visible.y / ROW_HEIGHT;
+        int last = Math.min(size - 1, (visible.y + visible.height - 1) / ROW_HEIGHT);
+        long now = board.ticks();
+        int dirtyFirst = -1;
+        int dirtyLast = -1;
+        int dirtyColumn = Integer.MAX_VALUE;
+        boolean stateChanged = false;
+        for (int row = first; row <= last; row++) {
+            int changed = formatter(row).format(board.elapsedNanos(row, now));
+            boolean running = board.isRunning(row);
+            if (running != shownRunning.get(row)) {
+                shownRunning.set(row, running);
+                stateChanged = true;
+                changed = 0;
+            }
+            if (changed >= 0) {
+                dirtyFirst = dirtyFirst < 0 ? row : dirtyFirst;
+                dirtyLast = row;
+                dirtyColumn = Math.min(dirtyColumn, changed);
+            }
+        }
+        if (dirtyFirst >= 0) {
+            // One coalesced repaint for every changed digit on screen; the
+            // whole row width when a name changes colour
+            int charWidth = getFontMetrics(getFont()).charWidth('0');
+            int x = stateChanged ? 0 : elapsedX(charWidth) + dirtyColumn * charWidth;
+            repaint(x, dirtyFirst * ROW_HEIGHT, getWidth() - x, (dirtyLast - dirtyFirst + 1) * ROW_HEIGHT);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        int size = board.size();
+        if (size == 0) {
+            return;
+        }
+        g.setFont(getFont());
+        FontMetrics metrics = g.getFontMetrics();
+        int charWidth = metrics.charWidth('0');
+        int elapsedX = elapsedX(charWidth);
+        int first = clip.y / ROW_HEIGHT;
+        int last = Math.min(size - 1, (clip.y + clip.height - 1) / ROW_HEIGHT);
+        for (int row = first; row <= last; row++) {
+            ElapsedFormatter formatter = formatter(row);
+            boolean running = shownRunning.get(row);
+            int baseline = row * ROW_HEIGHT + (ROW_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2;
+            g.setColor(running ? runningColor : stoppedColor);
+            g.drawString(board.name(row), PADDING, baseline);
+            g.drawChars(formatter.chars(), 0, formatter.length(), elapsedX, baseline);
+        }
+    }
+
+    private int elapsedX(int charWidth) {
+        return Math.max(PADDING, getWidth() - PADDING - ELAPSED_WIDTH_CHARS * charWidth);
+    }
+
+    private ElapsedFormatter formatter(int row) {
+        ElapsedFormatter formatter = formatters[row];
+        if (formatter == null) {
+            formatter = new ElapsedFormatter(3);
+            formatter.format(board.elapsedNanos(row));
+            formatters[row] = formatter;
+            shownRunning.set(row, board.isRunning(row));
+        }
+        return formatter;
+    }
+}
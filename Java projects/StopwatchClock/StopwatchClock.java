@@ -2,15 +2,39 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.staxtech.stopwatch.Stopwatch;
 
 /**
  * StopwatchClock - A GUI application that combines stopwatch and clock
  * functionality
  * Features:
  * - Digital clock showing current time
+ * - Countdowns and time-of-day alarms, any number of them pending on one
+ * timing wheel driven by a single timer
  * - Stopwatch with start, stop, reset functionality
+ * - Monotonic nanosecond timing, shown to milli-, micro- or nanoseconds
+ * - Laps and splits with running min/max/mean/deviation/percentiles
+ * - Laps export to CSV, JSON or an HdrHistogram log for analysis tools
+ * - Live view of the named timers an application records through
+ * Stopwatch; attach() opens just that view inside another application
+ * - Stopwatch state, laps and lap statistics exposed as JMX MXBeans and
+ * JDK Flight Recorder events
+ * - Board of many named stopwatches sharing one render tick
+ * - Repaints at the screen refresh rate, only the digits that changed, and
+ * not at all while the window is minimized
+ * - Sessions survive restarts through a crash-safe journal; a stopwatch
+ * left running keeps counting while the app is closed
  * - Modern and clean interface
  */
 public class StopwatchClock extends JFrame {
@@ -18,33 +42,106 @@ public class StopwatchClock extends JFrame {
     // Clock components
     private JLabel clockLabel;
     private Timer clockTimer;
-    private SimpleDateFormat clockFormat;
+    // Immutable and thread-safe, so one shared instance serves every tick
+    private static final DateTimeFormatter CLOCK_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Alarm components; one timer advances the wheel holding every alarm,
+    // and runs only while something is pending
+    private static final int ALARM_TICK_MS = 10;
+    private final AlarmListModel alarmModel = new AlarmListModel(TimeUnit.MILLISECONDS.toNanos(ALARM_TICK_MS));
+    private Timer alarmTimer;
+    private JLabel alarmStatusLabel;
+    private JButton alarmsButton;
+    private JFrame alarmFrame;
 
     // Stopwatch components
-    private JLabel stopwatchLabel;
-    private Timer stopwatchTimer;
-    private long startTime;
-    private long elapsedTime;
-    private boolean isRunning;
+    private DigitDisplay stopwatchDisplay;
+    private SharedTicker.Binding stopwatchTicks;
+    private final StopwatchCore stopwatch = new StopwatchCore();
+    // JMX view of the stopwatch; lap statistics are pushed to it
+    private final StopwatchMetrics.StopwatchBean metrics = StopwatchMetrics.registerStopwatch(stopwatch);
+    private JComboBox<String> resolutionBox;
+    private ElapsedFormatter elapsedFormatter = new ElapsedFormatter(3);
+
+    // Display resolutions and the fraction digits each shows
+    private static final String[] RESOLUTIONS = { "Milliseconds", "Microseconds", "Nanoseconds" };
+    private static final int[] RESOLUTION_DIGITS = { 3, 6, 9 };
+
+    // Lap components
+    private final LapStore laps = new LapStore();
+    private LapListModel lapModel;
+    private JList<String> lapList;
+    private JLabel lapStatsLabel;
+    private JLabel lapPercentilesLabel;
+    private final ElapsedFormatter statsFormatter = new ElapsedFormatter(3);
 
     // Control buttons
     private JButton startButton;
     private JButton stopButton;
     private JButton resetButton;
+    private JButton lapButton;
+    private JButton boardButton;
+    private JButton exportButton;
+    private JButton timersButton;
+    private JFrame timersFrame;
+
+    // Session journal; null when it could not be opened
+    private StopwatchJournal journal;
+
+    // Multi-stopwatch board, created on first use
+    private static final int BOARD_CAPACITY = 10_000;
+    private StopwatchBoard board;
+    private JFrame boardFrame;
 
     // Colors for modern UI
-    private final Color BACKGROUND_COLOR = new Color(45, 45, 45);
-    private final Color PANEL_COLOR = new Color(60, 60, 60);
-    private final Color TEXT_COLOR = new Color(255, 255, 255);
-    private final Color ACCENT_COLOR = new Color(0, 150, 255);
-    private final Color SUCCESS_COLOR = new Color(76, 175, 80);
-    private final Color DANGER_COLOR = new Color(244, 67, 54);
+    private static final Color BACKGROUND_COLOR = new Color(45, 45, 45);
+    private static final Color PANEL_COLOR = new Color(60, 60, 60);
+    private static final Color TEXT_COLOR = new Color(255, 255, 255);
+    private static final Color ACCENT_COLOR = new Color(0, 150, 255);
+    private static final Color SUCCESS_COLOR = new Color(76, 175, 80);
+    private static final Color DANGER_COLOR = new Color(244, 67, 54);
+    private static final Color WARNING_COLOR = new Color(255, 152, 0);
 
     public StopwatchClock() {
         initializeComponents();
         setupLayout();
         startClock();
         setupEventListeners();
+        restoreSession();
+    }
+
+    // Journal location: -Dstopwatchclock.journal, else ~/.stopwatchclock/journal.bin
+    private static Path journalPath() {
+        String configured = System.getProperty("stopwatchclock.journal");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".stopwatchclock", "journal.bin");
+    }
+
+    private void restoreSession() {
+        try {
+            journal = StopwatchJournal.open(journalPath(), laps);
+        } catch (IOException e) {
+            // Keep working without persistence
+            e.printStackTrace();
+            laps.clear();
+            return;
+        }
+        StopwatchJournal opened = journal;
+        Runtime.getRuntime().addShutdownHook(new Thread(opened::close, "stopwatch-journal-close"));
+        lapModel.loaded();
+        updateLapStats();
+        if (laps.size() > 0) {
+            lapList.ensureIndexIsVisible(laps.size() - 1);
+        }
+        stopwatch.restore(journal.recoveredElapsedNanos(), false);
+        if (journal.recoveredRunning()) {
+            resumeStopwatch();
+        } else if (journal.recoveredElapsedNanos() > 0) {
+            updateStopwatch();
+            resetButton.setEnabled(true);
+        }
     }
 
     private void initializeComponents() {
@@ -52,37 +149,71 @@ public class StopwatchClock extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setResizable(false);
         getContentPane().setBackground(BACKGROUND_COLOR); // Initialize clock
-        clockFormat = new SimpleDateFormat("HH:mm:ss");
         clockLabel = new JLabel();
         clockLabel.setFont(new Font("Monospaced", Font.BOLD, 48));
         clockLabel.setForeground(ACCENT_COLOR);
         clockLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
+        alarmStatusLabel = createStatsLabel();
+        alarmStatusLabel.setText("No alarms pending");
+        alarmsButton = createStyledButton("ALARMS", ACCENT_COLOR);
+        alarmsButton.setPreferredSize(new Dimension(110, 32));
+        alarmsButton.setMaximumSize(new Dimension(110, 32));
+
         // Initialize stopwatch
-        stopwatchLabel = new JLabel("00:00:00.000");
-        stopwatchLabel.setFont(new Font("Monospaced", Font.BOLD, 32));
-        stopwatchLabel.setForeground(TEXT_COLOR);
-        stopwatchLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        stopwatchDisplay = new DigitDisplay("00:00:00.000", new Font("Monospaced", Font.BOLD, 32));
+        stopwatchDisplay.setForeground(TEXT_COLOR);
+        // Ticks only while running and on screen
+        stopwatchTicks = new SharedTicker.Binding(stopwatchDisplay, this::updateStopwatch);
+        resolutionBox = new JComboBox<>(RESOLUTIONS);
+        resolutionBox.setFont(new Font("Arial", Font.PLAIN, 12));
+        resolutionBox.setMaximumSize(new Dimension(140, 26));
 
         // Initialize buttons
         startButton = createStyledButton("START", SUCCESS_COLOR);
         stopButton = createStyledButton("STOP", DANGER_COLOR);
         resetButton = createStyledButton("RESET", ACCENT_COLOR);
-        // Disable stop and reset until stopwatch starts
+        lapButton = createStyledButton("LAP", WARNING_COLOR);
+        boardButton = createStyledButton("BOARD", PANEL_COLOR);
+        exportButton = createStyledButton("EXPORT", PANEL_COLOR);
+        exportButton.setPreferredSize(new Dimension(110, 32));
+        exportButton.setMaximumSize(new Dimension(110, 32));
+        exportButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        timersButton = createStyledButton("TIMERS", PANEL_COLOR);
+        timersButton.setPreferredSize(new Dimension(110, 26));
+        timersButton.setMaximumSize(new Dimension(110, 26));
+        // Disable stop, lap and reset until stopwatch starts
         stopButton.setEnabled(false);
+        lapButton.setEnabled(false);
         resetButton.setEnabled(false);
 
+        // Initialize laps; a fixed cell size lets the list skip measuring
+        // every row, so only the visible laps are ever formatted
+        lapModel = new LapListModel(laps);
+        lapList = new JList<>(lapModel);
+        lapList.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        lapList.setFixedCellHeight(18);
+        lapList.setFixedCellWidth(480);
+        lapList.setBackground(PANEL_COLOR);
+        lapList.setForeground(TEXT_COLOR);
+        lapStatsLabel = createStatsLabel();
+        lapPercentilesLabel = createStatsLabel();
+        updateLapStats();
+
         // Initialize timers
         clockTimer = new Timer(1000, e -> updateClock());
-        stopwatchTimer = new Timer(10, e -> updateStopwatch());
+        alarmTimer = new Timer(ALARM_TICK_MS, e -> fireDueAlarms());
+    }
 
-        // Initialize stopwatch variables
-        startTime = 0;
-        elapsedTime = 0;
-        isRunning = false;
+    private JLabel createStatsLabel() {
+        JLabel label = new JLabel(" ");
+        label.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        label.setForeground(TEXT_COLOR);
+        label.setAlignmentX(Component.CENTER_ALIGNMENT);
+        return label;
     }
 
-    private JButton createStyledButton(String text, Color color) {
+    private static JButton createStyledButton(String text, Color color) {
         JButton button = new JButton(text);
         button.setFont(new Font("Arial", Font.BOLD, 14));
         button.setBackground(color);
@@ -131,6 +262,15 @@ public class StopwatchClock extends JFrame {
         clockPanel.add(clockTitle);
         clockPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         clockPanel.add(clockLabel);
+        clockPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        JPanel alarmRow = new JPanel();
+        alarmRow.setLayout(new BoxLayout(alarmRow, BoxLayout.X_AXIS));
+        alarmRow.setOpaque(false);
+        alarmRow.setAlignmentX(Component.CENTER_ALIGNMENT);
+        alarmRow.add(alarmStatusLabel);
+        alarmRow.add(Box.createRigidArea(new Dimension(12, 0)));
+        alarmRow.add(alarmsButton);
+        clockPanel.add(alarmRow);
 
         // Spacer between panels
         Dimension spacer = new Dimension(0, 20);
@@ -140,14 +280,23 @@ public class StopwatchClock extends JFrame {
         stopwatchTitle.setFont(new Font("Arial", Font.BOLD, 16));
         stopwatchTitle.setForeground(TEXT_COLOR);
         stopwatchTitle.setAlignmentX(Component.CENTER_ALIGNMENT);
-        stopwatchLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        stopwatchDisplay.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel stopwatchPanel = createStyledPanel();
         stopwatchPanel.setLayout(new BoxLayout(stopwatchPanel, BoxLayout.Y_AXIS));
         stopwatchPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         stopwatchPanel.add(stopwatchTitle);
         stopwatchPanel.add(Box.createRigidArea(new Dimension(0, 10)));
-        stopwatchPanel.add(stopwatchLabel);
+        stopwatchPanel.add(stopwatchDisplay);
+        stopwatchPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        JPanel optionRow = new JPanel();
+        optionRow.setLayout(new BoxLayout(optionRow, BoxLayout.X_AXIS));
+        optionRow.setOpaque(false);
+        optionRow.setAlignmentX(Component.CENTER_ALIGNMENT);
+        optionRow.add(resolutionBox);
+        optionRow.add(Box.createRigidArea(new Dimension(12, 0)));
+        optionRow.add(timersButton);
+        stopwatchPanel.add(optionRow);
 
         // Button panel
         JPanel buttonPanel = new JPanel();
@@ -159,9 +308,34 @@ public class StopwatchClock extends JFrame {
         buttonPanel.add(Box.createRigidArea(new Dimension(10, 0)));
         buttonPanel.add(stopButton);
         buttonPanel.add(Box.createRigidArea(new Dimension(10, 0)));
+        buttonPanel.add(lapButton);
+        buttonPanel.add(Box.createRigidArea(new Dimension(10, 0)));
         buttonPanel.add(resetButton);
+        buttonPanel.add(Box.createRigidArea(new Dimension(10, 0)));
+        buttonPanel.add(boardButton);
         buttonPanel.add(Box.createHorizontalGlue());
 
+        // Lap panel
+        JLabel lapTitle = new JLabel("Laps", SwingConstants.CENTER);
+        lapTitle.setFont(new Font("Arial", Font.BOLD, 16));
+        lapTitle.setForeground(TEXT_COLOR);
+        lapTitle.setAlignmentX(Component.CENTER_ALIGNMENT);
+        JScrollPane lapScroll = new JScrollPane(lapList);
+        lapScroll.setPreferredSize(new Dimension(500, 140));
+        lapScroll.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JPanel lapPanel = createStyledPanel();
+        lapPanel.setLayout(new BoxLayout(lapPanel, BoxLayout.Y_AXIS));
+        lapPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        lapPanel.add(lapTitle);
+        lapPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        lapPanel.add(lapScroll);
+        lapPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        lapPanel.add(lapStatsLabel);
+        lapPanel.add(lapPercentilesLabel);
+        lapPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        lapPanel.add(exportButton);
+
         // Build content
         contentPanel.add(Box.createVerticalGlue());
         contentPanel.add(clockPanel);
@@ -169,6 +343,8 @@ public class StopwatchClock extends JFrame {
         contentPanel.add(stopwatchPanel);
         contentPanel.add(Box.createRigidArea(spacer));
         contentPanel.add(buttonPanel);
+        contentPanel.add(Box.createRigidArea(spacer));
+        contentPanel.add(lapPanel);
         contentPanel.add(Box.createVerticalGlue());
 
         // Add to frame
@@ -176,9 +352,9 @@ public class StopwatchClock extends JFrame {
         // Layout and sizing
         pack();
         // Increase default window size
-        setSize(600, 500);
+        setSize(640, 930);
         // Set minimum size to prevent too-small resizing
-        setMinimumSize(new Dimension(600, 500));
+        setMinimumSize(new Dimension(640, 930));
         setLocationRelativeTo(null);
     }
 
@@ -212,63 +388,486 @@ public class StopwatchClock extends JFrame {
                 resetStopwatch();
             }
         });
+
+        lapButton.addActionListener(e -> recordLap());
+        boardButton.addActionListener(e -> openBoard());
+        alarmsButton.addActionListener(e -> openAlarms());
+        exportButton.addActionListener(e -> exportLaps());
+        timersButton.addActionListener(e -> openTimers());
+
+        resolutionBox.addActionListener(e -> {
+            int digits = RESOLUTION_DIGITS[resolutionBox.getSelectedIndex()];
+            elapsedFormatter = new ElapsedFormatter(digits);
+            stopwatchDisplay.setColumns(9 + digits);
+            lapModel.setFractionDigits(digits);
+            updateStopwatch();
+        });
     }
 
     private void startClock() {
         updateClock();
         clockTimer.start();
+        // Nothing to show while minimized; catch up on restore
+        addWindowStateListener(e -> {
+            if ((e.getNewState() & ICONIFIED) != 0) {
+                clockTimer.stop();
+            } else if (!clockTimer.isRunning()) {
+                updateClock();
+                clockTimer.start();
+            }
+        });
     }
 
     private void updateClock() {
-        String currentTime = clockFormat.format(new Date());
-        clockLabel.setText(currentTime);
+        clockLabel.setText(currentClockText());
+    }
+
+    static String currentClockText() {
+        return CLOCK_FORMAT.format(LocalTime.now());
     }
 
     private void startStopwatch() {
-        if (!isRunning) {
-            startTime = System.currentTimeMillis() - elapsedTime;
-            stopwatchTimer.start();
-            isRunning = true;
+        if (!stopwatch.isRunning()) {
+            if (journal != null) {
+                journal.started(stopwatch.elapsedNanos());
+            }
+            StopwatchMetrics.stateChanged("start", stopwatch.elapsedNanos());
+            resumeStopwatch();
+        }
+    }
+
+    private void resumeStopwatch() {
+        if (!stopwatch.isRunning()) {
+            stopwatch.start();
+            stopwatchTicks.setWanted(true);
             startButton.setEnabled(false);
             stopButton.setEnabled(true);
+            lapButton.setEnabled(true);
             // Disable reset button during running
             resetButton.setEnabled(false);
         }
     }
 
     private void stopStopwatch() {
-        if (isRunning) {
-            stopwatchTimer.stop();
-            isRunning = false;
+        if (stopwatch.isRunning()) {
+            stopwatch.stop();
+            if (journal != null) {
+                journal.stopped(stopwatch.elapsedNanos());
+            }
+            StopwatchMetrics.stateChanged("stop", stopwatch.elapsedNanos());
+            stopwatchTicks.setWanted(false);
+            updateStopwatch();
             startButton.setEnabled(true);
             stopButton.setEnabled(false);
+            lapButton.setEnabled(false);
             // Enable reset button when stopped
             resetButton.setEnabled(true);
         }
     }
 
     private void resetStopwatch() {
-        stopwatchTimer.stop();
-        isRunning = false;
-        elapsedTime = 0;
-        startTime = 0;
-        stopwatchLabel.setText("00:00:00.000");
+        stopwatchTicks.setWanted(false);
+        StopwatchMetrics.stateChanged("reset", stopwatch.elapsedNanos());
+        stopwatch.reset();
+        if (journal != null) {
+            journal.reset();
+        }
+        updateStopwatch();
+        int lapCount = laps.size();
+        laps.clear();
+        lapModel.cleared(lapCount);
+        updateLapStats();
         startButton.setEnabled(true);
         stopButton.setEnabled(false);
+        lapButton.setEnabled(false);
         // Disable reset button after reset
         resetButton.setEnabled(false);
     }
 
     private void updateStopwatch() {
-        elapsedTime = System.currentTimeMillis() - startTime;
+        // The display repaints only the cells that differ
+        if (elapsedFormatter.format(stopwatch.elapsedNanos()) >= 0) {
+            stopwatchDisplay.setText(elapsedFormatter.chars(), elapsedFormatter.length());
+        }
+    }
+
+    private void recordLap() {
+        long split = stopwatch.elapsedNanos();
+        long lap = laps.addSplit(split);
+        if (journal != null) {
+            journal.lap(split);
+        }
+        StopwatchMetrics.lapRecorded(laps.size(), lap, split);
+        lapModel.lapAdded();
+        lapList.ensureIndexIsVisible(laps.size() - 1);
+        updateLapStats();
+    }
+
+    // Statistics are maintained by the store, so this is O(1) per lap apart
+    // from the percentile scan over the fixed-size histogram
+    private void updateLapStats() {
+        metrics.lapsChanged(laps);
+        if (laps.size() == 0) {
+            lapStatsLabel.setText("No laps recorded");
+            lapPercentilesLabel.setText(" ");
+            return;
+        }
+        lapStatsLabel.setText(laps.size() + " laps   min " + formatStat(laps.min())
+                + "   max " + formatStat(laps.max()) + "   mean " + formatStat(Math.round(laps.mean())));
+        lapPercentilesLabel.setText("sd " + formatStat(Math.round(laps.standardDeviation()))
+                + "   p50 " + formatStat(laps.percentile(50)) + "   p99 " + formatStat(laps.percentile(99)));
+    }
+
+    private String formatStat(long nanos) {
+        statsFormatter.format(nanos);
+        return statsFormatter.toString();
+    }
+
+    private void exportLaps() {
+        if (laps.size() == 0) {
+            JOptionPane.showMessageDialog(this, "No laps to export", "Export", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export laps (.csv, .json or .hlog)");
+        chooser.setSelectedFile(new File("laps.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        // Approximate start of the run: pauses are not counted
+        long startMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(stopwatch.elapsedNanos());
+        try {
+            LapExport.export(laps, chooser.getSelectedFile().toPath(), startMillis);
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Export failed: " + e.getMessage(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openTimers() {
+        if (timersFrame == null) {
+            timersFrame = createTimersFrame(this);
+        }
+        timersFrame.setVisible(true);
+        timersFrame.toFront();
+    }
+
+    // Static so attach() can open it without the rest of the application
+    private static JFrame createTimersFrame(Component relativeTo) {
+        JFrame frame = new JFrame("Named Timers");
+        frame.getContentPane().setBackground(BACKGROUND_COLOR);
+        TimerTableModel model = new TimerTableModel();
+        JTable table = new JTable(model);
+        table.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        table.setRowHeight(20);
+        table.setBackground(PANEL_COLOR);
+        table.setForeground(TEXT_COLOR);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(220);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.getViewport().setBackground(PANEL_COLOR);
+        // Counters change constantly; four updates a second is readable
+        long[] lastRefresh = new long[1];
+        SharedTicker.Binding ticks = new SharedTicker.Binding(table, () -> {
+            long now = System.nanoTime();
+            if (now - lastRefresh[0] >= TimeUnit.MILLISECONDS.toNanos(250)) {
+                lastRefresh[0] = now;
+                model.refresh();
+            }
+        });
+        ticks.setWanted(true);
+        frame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                ticks.setWanted(false);
+            }
+        });
 
-        long hours = elapsedTime / 3600000;
-        long minutes = (elapsedTime % 3600000) / 60000;
-        long seconds = (elapsedTime % 60000) / 1000;
-        long millis = elapsedTime % 1000;
+        JButton resetButton = createStyledButton("RESET ALL", DANGER_COLOR);
+        resetButton.setPreferredSize(new Dimension(120, 36));
+        resetButton.addActionListener(e -> {
+            for (Stopwatch.Timer timer : Stopwatch.timers()) {
+                timer.reset();
+            }
+            model.refresh();
+        });
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
+        actions.setBackground(BACKGROUND_COLOR);
+        actions.add(resetButton);
+
+        JLabel hint = new JLabel("Timers recorded through Stopwatch.start(name) in this JVM",
+                SwingConstants.CENTER);
+        hint.setForeground(TEXT_COLOR);
+
+        frame.setLayout(new BorderLayout());
+        frame.add(hint, BorderLayout.NORTH);
+        frame.add(scroll, BorderLayout.CENTER);
+        frame.add(actions, BorderLayout.SOUTH);
+        frame.setSize(760, 420);
+        frame.setLocationRelativeTo(relativeTo);
+        return frame;
+    }
+
+    /**
+     * Opens a live viewer of the Stopwatch timers inside a running
+     * application. Only the timers table is created: no journal, shutdown
+     * hook, MXBean or clock timers. Closing the viewer disposes it and stops
+     * its refresh; the application keeps running.
+     */
+    public static void attach() {
+        SwingUtilities.invokeLater(() -> {
+            JFrame viewer = createTimersFrame(null);
+            viewer.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            viewer.setVisible(true);
+        });
+    }
+
+    private void openBoard() {
+        if (boardFrame == null) {
+            board = new StopwatchBoard(BOARD_CAPACITY);
+            boardFrame = createBoardFrame();
+        }
+        boardFrame.setVisible(true);
+        boardFrame.toFront();
+    }
+
+    private JFrame createBoardFrame() {
+        JFrame frame = new JFrame("Stopwatch Board");
+        frame.getContentPane().setBackground(BACKGROUND_COLOR);
+        StopwatchBoardView view = new StopwatchBoardView(board, PANEL_COLOR, SUCCESS_COLOR, TEXT_COLOR);
+        JScrollPane scroll = new JScrollPane(view);
+        scroll.getViewport().setBackground(PANEL_COLOR);
+        scroll.getVerticalScrollBar().setUnitIncrement(24);
+
+        JTextField nameField = new JTextField(14);
+        JButton addButton = createStyledButton("ADD", ACCENT_COLOR);
+        JButton addManyButton = createStyledButton("ADD 100", ACCENT_COLOR);
+        JButton startAllButton = createStyledButton("START ALL", SUCCESS_COLOR);
+        JButton stopAllButton = createStyledButton("STOP ALL", DANGER_COLOR);
+        for (JButton button : new JButton[] { addButton, addManyButton, startAllButton, stopAllButton }) {
+            button.setPreferredSize(new Dimension(110, 36));
+        }
+
+        addButton.addActionListener(e -> {
+            String name = nameField.getText().trim();
+            addToBoard(name.isEmpty() ? "Stopwatch " + (board.size() + 1) : name);
+            nameField.setText("");
+        });
+        nameField.addActionListener(e -> addButton.doClick());
+        addManyButton.addActionListener(e -> {
+            for (int i = 0; i < 100 && board.size() < board.capacity(); i++) {
+                addToBoard("Job " + (board.size() + 1));
+            }
+        });
+        startAllButton.addActionListener(e -> {
+            for (int i = 0; i < board.size(); i++) {
+                board.start(i);
+            }
+        });
+        stopAllButton.addActionListener(e -> {
+            for (int i = 0; i < board.size(); i++) {
+                board.stop(i);
+            }
+        });
 
-        String timeString = String.format("%02d:%02d:%02d.%03d", hours, minutes, seconds, millis);
-        stopwatchLabel.setText(timeString);
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
+        controls.setBackground(BACKGROUND_COLOR);
+        controls.add(nameField);
+        controls.add(addButton);
+        controls.add(addManyButton);
+        controls.add(startAllButton);
+        controls.add(stopAllButton);
+
+        JLabel hint = new JLabel("Click a stopwatch to start or stop it, double-click to reset it",
+                SwingConstants.CENTER);
+        hint.setForeground(TEXT_COLOR);
+
+        frame.setLayout(new BorderLayout());
+        frame.add(controls, BorderLayout.NORTH);
+        frame.add(scroll, BorderLayout.CENTER);
+        frame.add(hint, BorderLayout.SOUTH);
+        frame.setSize(720, 520);
+        frame.setLocationRelativeTo(this);
+        return frame;
+    }
+
+    private void addToBoard(String name) {
+        try {
+            board.add(name);
+        } catch (IllegalStateException e) {
+            JOptionPane.showMessageDialog(boardFrame, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openAlarms() {
+        if (alarmFrame == null) {
+            alarmFrame = createAlarmFrame();
+        }
+        alarmFrame.setVisible(true);
+        alarmFrame.toFront();
+    }
+
+    private JFrame createAlarmFrame() {
+        JFrame frame = new JFrame("Countdowns & Alarms");
+        frame.getContentPane().setBackground(BACKGROUND_COLOR);
+        JList<String> alarmList = new JList<>(alarmModel);
+        alarmList.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        alarmList.setFixedCellHeight(18);
+        alarmList.setFixedCellWidth(400);
+        alarmList.setBackground(PANEL_COLOR);
+        alarmList.setForeground(TEXT_COLOR);
+        JScrollPane scroll = new JScrollPane(alarmList);
+        scroll.getViewport().setBackground(PANEL_COLOR);
+        // Remaining times are whole seconds, so a tenth of a second is
+        // fresh enough; the list repaints only its visible rows
+        long[] lastRepaint = new long[1];
+        SharedTicker.Binding listTicks = new SharedTicker.Binding(alarmList, () -> {
+            long now = System.nanoTime();
+            if (now - lastRepaint[0] >= TimeUnit.MILLISECONDS.toNanos(100)) {
+                lastRepaint[0] = now;
+                alarmList.repaint();
+            }
+        });
+        listTicks.setWanted(true);
+
+        JTextField labelField = new JTextField(10);
+        JTextField countdownField = new JTextField("05:00", 6);
+        JTextField alarmField = new JTextField("07:30", 5);
+        JButton countdownButton = createStyledButton("COUNTDOWN", SUCCESS_COLOR);
+        JButton alarmButton = createStyledButton("ALARM", WARNING_COLOR);
+        JButton addManyButton = createStyledButton("ADD 1000", ACCENT_COLOR);
+        JButton cancelButton = createStyledButton("CANCEL", DANGER_COLOR);
+        for (JButton button : new JButton[] { countdownButton, alarmButton, addManyButton, cancelButton }) {
+            button.setPreferredSize(new Dimension(110, 36));
+        }
+
+        countdownButton.addActionListener(e -> {
+            try {
+                Duration duration = parseCountdown(countdownField.getText().trim());
+                String label = labelField.getText().trim();
+                addAlarm(label.isEmpty() ? "Countdown " + countdownField.getText().trim() : label,
+                        System.nanoTime() + duration.toNanos());
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(frame, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        alarmButton.addActionListener(e -> {
+            try {
+                LocalTime at = LocalTime.parse(alarmField.getText().trim());
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime next = now.with(at);
+                if (!next.isAfter(now)) {
+                    next = next.plusDays(1);
+                }
+                String label = labelField.getText().trim();
+                addAlarm(label.isEmpty() ? "Alarm " + at : label,
+                        System.nanoTime() + Duration.between(now, next).toNanos());
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(frame, "Invalid time, expected HH:mm", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        addManyButton.addActionListener(e -> {
+            // Spread across the next hour, to exercise the wheel
+            long now = System.nanoTime();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 1000; i++) {
+                addAlarm("Job " + (alarmModel.getSize() + 1), now + random.nextLong(TimeUnit.HOURS.toNanos(1)));
+            }
+        });
+        cancelButton.addActionListener(e -> {
+            int[] selected = alarmList.getSelectedIndices();
+            // Highest first: cancelling moves the last row into the gap
+            for (int i = selected.length - 1; i >= 0; i--) {
+                alarmModel.cancel(selected[i]);
+            }
+            alarmList.clearSelection();
+            updateAlarmStatus();
+        });
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
+        controls.setBackground(BACKGROUND_COLOR);
+        controls.add(createFieldLabel("Label"));
+        controls.add(labelField);
+        controls.add(createFieldLabel("mm:ss"));
+        controls.add(countdownField);
+        controls.add(countdownButton);
+        controls.add(createFieldLabel("HH:mm"));
+        controls.add(alarmField);
+        controls.add(alarmButton);
+
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
+        actions.setBackground(BACKGROUND_COLOR);
+        actions.add(addManyButton);
+        actions.add(cancelButton);
+
+        frame.setLayout(new BorderLayout());
+        frame.add(controls, BorderLayout.NORTH);
+        frame.add(scroll, BorderLayout.CENTER);
+        frame.add(actions, BorderLayout.SOUTH);
+        frame.setSize(760, 480);
+        frame.setLocationRelativeTo(this);
+        return frame;
+    }
+
+    private JLabel createFieldLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setForeground(TEXT_COLOR);
+        return label;
+    }
+
+    // Accepts SS, MM:SS or HH:MM:SS
+    static Duration parseCountdown(String text) {
+        String[] parts = text.split(":", -1);
+        if (parts.length > 3) {
+            throw new IllegalArgumentException("Invalid countdown, expected HH:MM:SS, MM:SS or seconds");
+        }
+        long seconds = 0;
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                long value = Long.parseLong(parts[i]);
+                // Only the leading field may exceed 59
+                if (value < 0 || (i > 0 && value > 59)) {
+                    throw new NumberFormatException();
+                }
+                seconds = Math.addExact(Math.multiplyExact(seconds, 60), value);
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid countdown, expected HH:MM:SS, MM:SS or seconds");
+            }
+        }
+        if (seconds == 0) {
+            throw new IllegalArgumentException("Countdown must be longer than zero");
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private void addAlarm(String label, long deadlineNanos) {
+        alarmModel.add(label, deadlineNanos);
+        if (!alarmTimer.isRunning()) {
+            alarmTimer.start();
+        }
+        updateAlarmStatus();
+    }
+
+    // Keeps running while minimized: alarms must fire regardless
+    private void fireDueAlarms() {
+        if (alarmModel.advance(System.nanoTime()) > 0) {
+            Toolkit.getDefaultToolkit().beep();
+            updateAlarmStatus();
+        }
+        if (alarmModel.getSize() == 0) {
+            alarmTimer.stop();
+        }
+    }
+
+    private void updateAlarmStatus() {
+        int pending = alarmModel.getSize();
+        String status = pending == 0 ? "No alarms pending"
+                : pending + (pending == 1 ? " alarm" : " alarms") + " pending";
+        if (alarmModel.lastFired() != null) {
+            status += "   last: " + alarmModel.lastFired();
+        }
+        alarmStatusLabel.setText(status);
     }
 
     public static void main(String[] args) {
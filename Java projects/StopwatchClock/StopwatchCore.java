@@ -0,0 +1,90 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StopwatchCore - UI-independent stopwatch measured with System.nanoTime
+ * Features:
+ * - Monotonic: unaffected by NTP steps or manual wall-clock changes
+ * - Nanosecond resolution (actual precision depends on the platform timer)
+ * - Whole state in one AtomicLong, so start/stop/reset are lock-free from
+ * any thread and reading the elapsed time never locks or allocates
+ */
+final class StopwatchCore {
+
+    // Ticks are nanoseconds relative to this instance's creation, which
+    // keeps them small enough to shift left by one without overflow.
+    // state = (elapsed << 1) when stopped, or
+    // state = (origin << 1) | 1 when running, where elapsed = now - origin
+    private final long base = System.nanoTime();
+    private final AtomicLong state = new AtomicLong();
+
+    /** Starts or resumes timing; does nothing if already running. */
+    void start() {
+        long s;
+        do {
+            s = state.get();
+            if (isRunning(s)) {
+                return;
+            }
+        } while (!state.compareAndSet(s, started(s, ticks())));
+    }
+
+    /** Pauses timing, keeping the elapsed time; does nothing if stopped. */
+    void stop() {
+        long s;
+        do {
+            s = state.get();
+            if (!isRunning(s)) {
+                return;
+            }
+        } while (!state.compareAndSet(s, stopped(s, ticks())));
+    }
+
+    /** Stops and clears the elapsed time. */
+    void reset() {
+        state.set(0);
+    }
+
+    /** Sets the elapsed time, e.g. from a saved session, running or not. */
+    void restore(long elapsedNanos, boolean running) {
+        long stoppedState = elapsedNanos << 1;
+        state.set(running ? started(stoppedState, ticks()) : stoppedState);
+    }
+
+    boolean isRunning() {
+        return isRunning(state.get());
+    }
+
+    long elapsedNanos() {
+        return elapsed(state.get(), ticks());
+    }
+
+    long elapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private long ticks() {
+        return System.nanoTime() - base;
+    }
+
+    // State encoding, shared with StopwatchBoard. Ticks are nanoseconds
+    // since the owner's base time.
+
+    static boolean isRunning(long s) {
+        return (s & 1) != 0;
+    }
+
+    /** State of a stopped stopwatch {@code s} started at {@code ticks}. */
+    static long started(long s, long ticks) {
+        return ((ticks - (s >> 1)) << 1) | 1;
+    }
+
+    /** State of a running stopwatch {@code s} stopped at {@code ticks}. */
+    static long stopped(long s, long ticks) {
+        return (ticks - (s >> 1)) << 1;
+    }
+
+    static long elapsed(long s, long ticks) {
+        return isRunning(s) ? ticks - (s >> 1) : s >> 1;
+    }
+}
@@ -0,0 +1,101 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * StopwatchEvents - JDK Flight Recorder events for the window's stopwatch
+ * Features:
+ * - Stopwatch state changes and laps as instant events, so they line up
+ * with GC pauses and CPU samples in a recording
+ * - Periodic lap statistics, emitted once a second while a recording is
+ * running
+ * - Named timers have their own events, in com.staxtech.stopwatch.TimerEvents
+ * - No stack traces by default, which keeps committing an event cheap;
+ * enable them per event in a .jfc file when needed
+ * Nothing is recorded, and nothing is allocated, unless a recording with
+ * these events enabled is running.
+ */
+final class StopwatchEvents {
+
+    private static final String CATEGORY = "Stopwatch Clock";
+
+    private StopwatchEvents() {
+    }
+
+    @Name("stopwatchclock.StopwatchState")
+    @Label("Stopwatch State Change")
+    @Description("The stopwatch in the window was started, stopped or reset")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class StateChange extends Event {
+        @Label("Action")
+        String action;
+
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("stopwatchclock.Lap")
+    @Label("Lap")
+    @Description("A lap recorded on the stopwatch in the window")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Lap extends Event {
+        @Label("Lap Number")
+        int lap;
+
+        @Label("Lap Time")
+        @Timespan
+        long lapTime;
+
+        @Label("Split")
+        @Timespan
+        long split;
+    }
+
+    @Name("stopwatchclock.LapStatistics")
+    @Label("Lap Statistics")
+    @Description("Statistics of the laps recorded on the stopwatch in the window")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Period("1 s")
+    static final class LapStatistics extends Event {
+        @Label("Laps")
+        int laps;
+
+        @Label("Min")
+        @Timespan
+        long min;
+
+        @Label("Max")
+        @Timespan
+        long max;
+
+        @Label("Mean")
+        @Timespan
+        long mean;
+
+        @Label("Standard Deviation")
+        @Timespan
+        long standardDeviation;
+
+        @Label("50th Percentile")
+        @Timespan
+        long p50;
+
+        @Label("99th Percentile")
+        @Timespan
+        long p99;
+
+        @Label("Histogram Memory")
+        @DataAmount
+        long histogramBytes;
+    }
+}
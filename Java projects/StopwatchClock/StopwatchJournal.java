@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * StopwatchJournal - crash-safe append-only log of stopwatch events
+ * Features:
+ * - Fixed 32-byte records (start, stop, lap, reset) carrying the elapsed
+ * time and the wall-clock time of the event, each with a CRC32C
+ * - Appends only copy into a memory buffer; a background thread writes and
+ * fsyncs everything pending as one group commit every FLUSH_INTERVAL_MS
+ * - Replay on open streams the file through one reused direct buffer,
+ * stopping at the first torn or corrupt record and truncating it away
+ * - A reset makes every earlier record irrelevant, so it truncates the file
+ * - The file is locked while open, so a second writer fails to open it
+ * instead of interleaving records with the first
+ * A timer still running when the app exits resumes with the wall-clock time
+ * that passed in between, since nanoTime does not survive a restart.
+ */
+final class StopwatchJournal implements AutoCloseable {
+
+    static final byte START = 1;
+    static final byte STOP = 2;
+    static final byte LAP = 3;
+    static final byte RESET = 4;
+
+    private static final int MAGIC = 0x53574A31; // "SWJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int CHECKSUMMED_BYTES = 28;
+    private static final int BUFFER_RECORDS = 2048;
+    private static final int REPLAY_CHUNK = 1 << 20;
+    private static final long FLUSH_INTERVAL_MS = 100;
+
+    private final FileChannel channel;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private final CRC32C checksum = new CRC32C();
+    private ByteBuffer pending = newBuffer();
+    private ByteBuffer writing = newBuffer();
+    private boolean closed;
+
+    private final boolean recoveredRunning;
+    private final long recoveredElapsedNanos;
+    private final long recordsReplayed;
+
+    private StopwatchJournal(FileChannel channel, boolean running, long elapsedNanos, long records) {
+        this.channel = channel;
+        this.recoveredRunning = running;
+        this.recoveredElapsedNanos = elapsedNanos;
+        this.recordsReplayed = records;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stopwatch-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::backgroundFlush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens or creates the journal at {@code file}, replaying its laps into
+     * {@code laps} and recovering the stopwatch state as of now.
+     */
+    static StopwatchJournal open(Path file, LapStore laps) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            lock(channel, file);
+            if (channel.size() < HEADER_SIZE) {
+                writeHeader(channel);
+                return new StopwatchJournal(channel, false, 0, 0);
+            }
+            long size = channel.size();
+            ByteBuffer data = ByteBuffer.allocateDirect(REPLAY_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, data.limit(HEADER_SIZE), 0);
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException("Not a stopwatch journal: " + file);
+            }
+            boolean running = false;
+            long elapsed = 0;
+            long wallMillis = 0;
+            long records = 0;
+            CRC32C crc = new CRC32C();
+            long pos = HEADER_SIZE;
+            replay:
+            while (pos + RECORD_SIZE <= size) {
+                // Whole records only, so none straddles two chunks
+                int chunk = (int) Math.min(REPLAY_CHUNK, (size - pos) / RECORD_SIZE * RECORD_SIZE);
+                readFully(channel, data.clear().limit(chunk), pos);
+                for (int off = 0; off < chunk; off += RECORD_SIZE) {
+                    crc.reset();
+                    crc.update(data.limit(off + CHECKSUMMED_BYTES).position(off));
+                    data.limit(chunk);
+                    if ((int) crc.getValue() != data.getInt(off + CHECKSUMMED_BYTES)) {
+                        break replay; // torn write from a crash; everything after it is garbage
+                    }
+                    byte type = data.get(off);
+                    long recordWall = data.getLong(off + 8);
+                    long recordElapsed = data.getLong(off + 16);
+                    switch (type) {
+                        case START:
+                        case LAP:
+                            if (type == LAP) {
+                                laps.addSplit(recordElapsed);
+                            } else {
+                                running = true;
+                            }
+                            elapsed = recordElapsed;
+                            wallMillis = recordWall;
+                            break;
+                        case STOP:
+                            running = false;
+                            elapsed = recordElapsed;
+                            break;
+                        case RESET:
+                            running = false;
+                            elapsed = 0;
+                            laps.clear();
+                            break;
+                        default:
+                            throw new IOException("Unknown journal record type " + type + " at offset " + pos);
+                    }
+                    records++;
+                    pos += RECORD_SIZE;
+                }
+            }
+            if (pos < channel.size()) {
+                channel.truncate(pos);
+                channel.force(false);
+            }
+            channel.position(pos);
+            if (running) {
+                // Time kept passing while the app was closed
+                elapsed += TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - wallMillis));
+            }
+            return new StopwatchJournal(channel, running, elapsed, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean recoveredRunning() {
+        return recoveredRunning;
+    }
+
+    long recoveredElapsedNanos() {
+        return recoveredElapsedNanos;
+    }
+
+    long recordsReplayed() {
+        return recordsReplayed;
+    }
+
+    void started(long elapsedNanos) {
+        append(START, elapsedNanos);
+    }
+
+    void stopped(long elapsedNanos) {
+        append(STOP, elapsedNanos);
+    }
+
+    void lap(long splitNanos) {
+        append(LAP, splitNanos);
+    }
+
+    /** Discards the whole history: nothing before a reset is needed to replay. */
+    void reset() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                checkOpen();
+                pending.clear();
+            }
+            try {
+                channel.truncate(HEADER_SIZE);
+                channel.position(HEADER_SIZE);
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Writes and fsyncs everything appended so far. */
+    void flush() {
+        synchronized (flushLock) {
+            ByteBuffer batch;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = writing;
+                writing = batch;
+            }
+            batch.flip();
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        // Let a group commit in progress finish: interrupting a thread blocked
+        // in channel I/O closes the channel under it
+        flusher.shutdown();
+        boolean interrupted = false;
+        try {
+            flusher.awaitTermination(FLUSH_INTERVAL_MS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            try {
+                channel.close(); // also releases the file lock
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void append(byte type, long elapsedNanos) {
+        long wallMillis = System.currentTimeMillis();
+        while (true) {
+            synchronized (this) {
+                checkOpen();
+                if (pending.remaining() >= RECORD_SIZE) {
+                    int start = pending.position();
+                    pending.put(type).put((byte) 0).putShort((short) 0).putInt(0)
+                            .putLong(wallMillis).putLong(elapsedNanos).putInt(0);
+                    checksum.reset();
+                    checksum.update(pending.array(), start, CHECKSUMMED_BYTES);
+                    pending.putInt((int) checksum.getValue());
+                    return;
+                }
+            }
+            // Buffer full between group commits: write through on this thread
+            flush();
+        }
+    }
+
+    private void backgroundFlush() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    // Held until the channel closes; the JVM reports a lock it already holds
+    // (attach() into a process with its own window) as an exception, not null
+    private static void lock(FileChannel channel, Path file) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("Journal is in use by another stopwatch: " + file);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).flip();
+        channel.truncate(0);
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    private static ByteBuffer newBuffer() {
+        return ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
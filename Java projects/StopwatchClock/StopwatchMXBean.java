@@ -0,0 +1,27 @@
+/**
+ * StopwatchMXBean - JMX view of the stopwatch in the StopwatchClock window
+ * Registered as StopwatchClock:type=Stopwatch,name=main. Durations are in
+ * nanoseconds; lap statistics are as of the most recent lap or reset.
+ */
+public interface StopwatchMXBean {
+
+    boolean isRunning();
+
+    long getElapsedNanos();
+
+    int getLapCount();
+
+    long getLapMinNanos();
+
+    long getLapMaxNanos();
+
+    double getLapMeanNanos();
+
+    double getLapStandardDeviationNanos();
+
+    long getLapP50Nanos();
+
+    long getLapP90Nanos();
+
+    long getLapP99Nanos();
+}
@@ -0,0 +1,197 @@
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * StopwatchMetrics - publishes the window's stopwatch over JMX and JFR
+ * Features:
+ * - An MXBean for the window's stopwatch and its lap statistics, under the
+ * StopwatchClock domain next to the named timers' beans (registered by
+ * com.staxtech.stopwatch.TimerMetrics)
+ * - Periodic JFR statistics events for the same data, and events for each
+ * state change and lap
+ * Lap statistics are published as immutable snapshots by the thread that
+ * owns the LapStore, so JMX and JFR threads never read it mid-update.
+ */
+final class StopwatchMetrics {
+
+    private static final String DOMAIN = "StopwatchClock";
+
+    private static volatile StopwatchBean stopwatch;
+
+    static {
+        FlightRecorder.addPeriodicEvent(StopwatchEvents.LapStatistics.class, StopwatchMetrics::emitLapStatistics);
+    }
+
+    private StopwatchMetrics() {
+    }
+
+    /**
+     * Registers the MXBean for the window's stopwatch, replacing any earlier
+     * window's. Publish lap statistics to the returned bean.
+     */
+    static StopwatchBean registerStopwatch(StopwatchCore core) {
+        StopwatchBean bean = new StopwatchBean(core);
+        register(bean, "type=Stopwatch,name=main");
+        stopwatch = bean;
+        return bean;
+    }
+
+    static void stateChanged(String action, long elapsedNanos) {
+        StopwatchEvents.StateChange event = new StopwatchEvents.StateChange();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+
+    static void lapRecorded(int lap, long durationNanos, long splitNanos) {
+        StopwatchEvents.Lap event = new StopwatchEvents.Lap();
+        if (event.shouldCommit()) {
+            event.lap = lap;
+            event.lapTime = durationNanos;
+            event.split = splitNanos;
+            event.commit();
+        }
+    }
+
+    private static void register(Object bean, String properties) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            try {
+                server.registerMBean(bean, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(bean, name);
+            }
+        } catch (JMException e) {
+            // Monitoring is optional; timing carries on without it
+            e.printStackTrace();
+        }
+    }
+
+    private static void emitLapStatistics() {
+        StopwatchBean bean = stopwatch;
+        if (bean == null) {
+            return;
+        }
+        LapSnapshot laps = bean.laps;
+        StopwatchEvents.LapStatistics event = new StopwatchEvents.LapStatistics();
+        event.laps = laps.count;
+        event.min = laps.min;
+        event.max = laps.max;
+        event.mean = Math.round(laps.mean);
+        event.standardDeviation = Math.round(laps.standardDeviation);
+        event.p50 = laps.p50;
+        event.p99 = laps.p99;
+        event.histogramBytes = laps.histogramBytes;
+        event.commit();
+    }
+
+    private static final class LapSnapshot {
+        static final LapSnapshot EMPTY = new LapSnapshot();
+
+        final int count;
+        final long min;
+        final long max;
+        final double mean;
+        final double standardDeviation;
+        final long p50;
+        final long p90;
+        final long p99;
+        final long histogramBytes;
+
+        private LapSnapshot() {
+            count = 0;
+            min = 0;
+            max = 0;
+            mean = 0;
+            standardDeviation = 0;
+            p50 = 0;
+            p90 = 0;
+            p99 = 0;
+            histogramBytes = 0;
+        }
+
+        LapSnapshot(LapStore laps) {
+            count = laps.size();
+            min = laps.min();
+            max = laps.max();
+            mean = laps.mean();
+            standardDeviation = laps.standardDeviation();
+            p50 = laps.percentile(50);
+            p90 = laps.percentile(90);
+            p99 = laps.percentile(99);
+            histogramBytes = laps.histogram().memoryBytes() + laps.splitHistogram().memoryBytes();
+        }
+    }
+
+    static final class StopwatchBean implements StopwatchMXBean {
+        private final StopwatchCore core;
+        private volatile LapSnapshot laps = LapSnapshot.EMPTY;
+
+        private StopwatchBean(StopwatchCore core) {
+            this.core = core;
+        }
+
+        /** Call from the LapStore's owner after laps are added or cleared. */
+        void lapsChanged(LapStore store) {
+            laps = store.size() == 0 ? LapSnapshot.EMPTY : new LapSnapshot(store);
+        }
+
+        @Override
+        public boolean isRunning() {
+            return core.isRunning();
+        }
+
+        @Override
+        public long getElapsedNanos() {
+            return core.elapsedNanos();
+        }
+
+        @Override
+        public int getLapCount() {
+            return laps.count;
+        }
+
+        @Override
+        public long getLapMinNanos() {
+            return laps.min;
+        }
+
+        @Override
+        public long getLapMaxNanos() {
+            return laps.max;
+        }
+
+        @Override
+        public double getLapMeanNanos() {
+            return laps.mean;
+        }
+
+        @Override
+        public double getLapStandardDeviationNanos() {
+            return laps.standardDeviation;
+        }
+
+        @Override
+        public long getLapP50Nanos() {
+            return laps.p50;
+        }
+
+        @Override
+        public long getLapP90Nanos() {
+            return laps.p90;
+        }
+
+        @Override
+        public long getLapP99Nanos() {
+            return laps.p99;
+        }
+    }
+}
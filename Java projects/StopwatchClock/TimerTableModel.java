@@ -0,0 +1,80 @@
+import com.staxtech.stopwatch.Stopwatch;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * TimerTableModel - live table of the named timers in Stopwatch
+ * Features:
+ * - One row per registered timer: count, total, mean, min and max
+ * - refresh() picks up newly registered timers as inserted rows and marks
+ * the rest updated, so the table repaints only what is on screen
+ * - Cells read the timers' striped counters directly; nothing is copied
+ * Use on the event dispatch thread only.
+ */
+final class TimerTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = { "Timer", "Count", "Total", "Mean", "Min", "Max" };
+
+    private final transient List<Stopwatch.Timer> timers = Stopwatch.timers();
+    private final transient ElapsedFormatter formatter = new ElapsedFormatter(6);
+    // Rows announced to the table so far; timers only ever get added
+    private int rows;
+
+    @Override
+    public int getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Stopwatch.Timer timer = timers.get(row);
+        switch (column) {
+            case 0:
+                return timer.name();
+            case 1:
+                return timer.count();
+            case 2:
+                return format(timer.totalNanos());
+            case 3:
+                return format(Math.round(timer.meanNanos()));
+            case 4:
+                return format(timer.minNanos());
+            default:
+                return format(timer.maxNanos());
+        }
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 1 ? Long.class : String.class;
+    }
+
+    /** Call periodically: announces new timers and updates the rest. */
+    void refresh() {
+        int previous = rows;
+        int current = timers.size();
+        if (previous > 0) {
+            fireTableRowsUpdated(0, previous - 1);
+        }
+        if (current > previous) {
+            rows = current;
+            fireTableRowsInserted(previous, current - 1);
+        }
+    }
+
+    private String format(long nanos) {
+        formatter.format(nanos);
+        return formatter.toString();
+    }
+}
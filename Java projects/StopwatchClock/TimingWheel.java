@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * TimingWheel - hierarchical timing wheel for countdowns and alarms
+ * Features:
+ * - Eleven levels of 64 slots cover every deadline a long can hold; level L
+ * slots are 64^L ticks wide and cascade down as their time approaches
+ * - O(1) schedule and cancel: timers are ints linked into intrusive lists
+ * held in primitive arrays, with no per-timer node objects
+ * - Advancing costs O(1) per tick plus O(1) per expiry or cascade,
+ * whatever the number of pending timers; empty stretches are skipped using
+ * one occupancy bitmap per level
+ * - Handles carry a generation, so cancelling a timer that already fired
+ * (and whose slot was reused) is a harmless no-op
+ * Not thread-safe: schedule, cancel and advance on one thread (the EDT in
+ * StopwatchClock).
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (63 + SLOT_BITS - 1) / SLOT_BITS;
+    private static final int NONE = -1;
+    // Extra list for timers scheduled already due, fired by the next advance
+    private static final int OVERDUE = LEVELS * SLOTS;
+
+    private final long tickNanos;
+    private final long originNanos;
+    // Last tick processed; timers are always due after it
+    private long currentTick;
+
+    // Head of each slot's list, and one bit per non-empty slot per level
+    private final int[] heads = new int[LEVELS * SLOTS + 1];
+    private final long[] occupied = new long[LEVELS + 1];
+
+    // Per-timer state, indexed by timer id
+    private long[] deadlines;
+    private int[] next;
+    private int[] prev;
+    private int[] slots;
+    private int[] generations;
+    private Runnable[] tasks;
+    private int freeHead = NONE;
+    private int allocated;
+    private int size;
+
+    /** Ticks of {@code tickNanos} measured from {@code nowNanos} (System.nanoTime). */
+    TimingWheel(long tickNanos, long nowNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = tickNanos;
+        this.originNanos = nowNanos;
+        Arrays.fill(heads, NONE);
+        grow(64);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Runs {@code task} from the first {@link #advance} at or after
+     * {@code deadlineNanos}; returns a handle for {@link #cancel}.
+     */
+    long schedule(long deadlineNanos, Runnable task) {
+        if (freeHead == NONE) {
+            grow(deadlines.length * 2);
+        }
+        int id = freeHead;
+        freeHead = next[id];
+        // Round up, so a timer never fires early
+        long tick = ceilDiv(deadlineNanos - originNanos, tickNanos);
+        deadlines[id] = tick;
+        tasks[id] = task;
+        if (tick > currentTick) {
+            insert(id, tick);
+        } else {
+            link(id, OVERDUE);
+        }
+        size++;
+        return ((long) generations[id] << 32) | id;
+    }
+
+    /** Cancels a pending timer; returns false if it already fired or was cancelled. */
+    boolean cancel(long handle) {
+        int id = (int) handle;
+        if (id < 0 || id >= allocated || generations[id] != (int) (handle >>> 32) || slots[id] == NONE) {
+            return false;
+        }
+        unlink(id);
+        release(id);
+        return true;
+    }
+
+    /** Fires every timer due at or before {@code nowNanos}; returns how many fired. */
+    int advance(long nowNanos) {
+        long target = Math.floorDiv(nowNanos - originNanos, tickNanos);
+        int fired = expire(OVERDUE);
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target;
+                break;
+            }
+            long tick = currentTick + 1;
+            int slot = (int) (tick & SLOT_MASK);
+            if (slot != 0 && (occupied[0] >>> slot) == 0) {
+                // Nothing left in this round of level 0: jump to the next cascade
+                currentTick = Math.min(target, (tick | SLOT_MASK));
+                continue;
+            }
+            currentTick = tick;
+            if (slot == 0) {
+                cascade(tick);
+            }
+            fired += expire(slot);
+        }
+        return fired;
+    }
+
+    private int expire(int slot) {
+        int fired = 0;
+        // Pop one at a time: a task may schedule or cancel other timers
+        while (heads[slot] != NONE) {
+            int id = heads[slot];
+            Runnable task = tasks[id];
+            unlink(id);
+            release(id);
+            task.run();
+            fired++;
+        }
+        return fired;
+    }
+
+    // At a level-0 wrap, pull the now-current slot of each higher level down
+    private void cascade(long tick) {
+        for (int level = 1; level < LEVELS; level++) {
+            long index = tick >>> (level * SLOT_BITS);
+            int slot = level * SLOTS + (int) (index & SLOT_MASK);
+            int id = heads[slot];
+            heads[slot] = NONE;
+            occupied[level] &= ~(1L << (index & SLOT_MASK));
+            while (id != NONE) {
+                int following = next[id];
+                insert(id, deadlines[id]);
+                id = following;
+            }
+            if ((index & SLOT_MASK) != 0) {
+                break; // higher levels only wrap when this one does
+            }
+        }
+    }
+
+    private void insert(int id, long tick) {
+        long delta = tick - currentTick;
+        int level = (63 - Long.numberOfLeadingZeros(delta | SLOT_MASK)) / SLOT_BITS;
+        int index = (int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+        link(id, level * SLOTS + index);
+    }
+
+    private void link(int id, int slot) {
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+        slots[id] = slot;
+        occupied[slot >>> SLOT_BITS] |= 1L << (slot & SLOT_MASK);
+    }
+
+    private void unlink(int id) {
+        int slot = slots[id];
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[slot] = next[id];
+            if (next[id] == NONE) {
+                occupied[slot >>> SLOT_BITS] &= ~(1L << (slot & SLOT_MASK));
+            }
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        slots[id] = NONE;
+    }
+
+    private void release(int id) {
+        tasks[id] = null;
+        generations[id]++;
+        next[id] = freeHead;
+        freeHead = id;
+        size--;
+    }
+
+    private void grow(int capacity) {
+        int from = allocated;
+        deadlines = deadlines == null ? new long[capacity] : Arrays.copyOf(deadlines, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+        slots = slots == null ? new int[capacity] : Arrays.copyOf(slots, capacity);
+        generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+        tasks = tasks == null ? new Runnable[capacity] : Arrays.copyOf(tasks, capacity);
+        for (int id = capacity - 1; id >= from; id--) {
+            slots[id] = NONE;
+            next[id] = freeHead;
+            freeHead = id;
+        }
+        allocated = capacity;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
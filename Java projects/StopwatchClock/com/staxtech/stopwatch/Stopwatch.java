@@ -0,0 +1,262 @@
+package com.staxtech.stopwatch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Stopwatch - named timers for instrumenting code paths
+ * Features:
+ * - {@code try (Stopwatch.Sample s = Stopwatch.start("db.query")) { ... }}
+ * records the block's duration into the timer named "db.query"
+ * - Runnables and suppliers can be timed directly or wrapped once and
+ * timed on every run
+ * - Timers accumulate count, total, min and max in striped LongAdder and
+ * LongAccumulator cells, so threads recording concurrently do not contend
+ * - Nothing is allocated per measurement: samples come from a per-thread
+ * pool and are reused once closed
+ * - StopwatchClock shows every registered timer live (TIMERS window, or
+ * StopwatchClock.attach() from an application)
+ * - Each timer is a JMX MXBean, and while a JFR recording is running each
+ * measurement is also a stopwatchclock.TimerSample event (see
+ * TimerMetrics); only then does a measurement allocate its event
+ * Durations are measured with System.nanoTime, like StopwatchCore. This is
+ * the one part of StopwatchClock in a named package, so that application
+ * code in its own packages can import it.
+ */
+public final class Stopwatch {
+
+    private static final ConcurrentHashMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    // Registration order, for viewers; timers are never removed
+    private static final List<Timer> REGISTERED = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<SampleStack> SAMPLES = ThreadLocal.withInitial(SampleStack::new);
+
+    private Stopwatch() {
+    }
+
+    /** The timer named {@code name}, created on first use. */
+    public static Timer timer(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Timer name must not be empty");
+        }
+        Timer timer = TIMERS.get(name);
+        if (timer != null) {
+            return timer;
+        }
+        Timer created = new Timer(name);
+        timer = TIMERS.putIfAbsent(name, created);
+        if (timer != null) {
+            return timer; // another thread registered it first
+        }
+        REGISTERED.add(created);
+        TimerMetrics.registerTimer(created);
+        return created;
+    }
+
+    /** Starts timing into the timer named {@code name}; close the sample to record. */
+    public static Sample start(String name) {
+        return timer(name).start();
+    }
+
+    public static void time(String name, Runnable task) {
+        timer(name).time(task);
+    }
+
+    public static <T> T time(String name, Supplier<T> task) {
+        return timer(name).time(task);
+    }
+
+    /** Wraps {@code task} so every run is timed into the timer named {@code name}. */
+    public static Runnable wrap(String name, Runnable task) {
+        Timer timer = timer(name);
+        return () -> timer.time(task);
+    }
+
+    /** Every timer registered so far, in registration order. */
+    public static List<Timer> timers() {
+        return REGISTERED;
+    }
+
+    /** A named accumulator of durations; safe to record into from any thread. */
+    public static final class Timer {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Sample start() {
+            return SAMPLES.get().push(this, System.nanoTime());
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            minNanos.accumulate(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public void time(Runnable task) {
+            TimerEvents.TimerSample event = beginEvent();
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(System.nanoTime() - start);
+                commitEvent(event);
+            }
+        }
+
+        public <T> T time(Supplier<T> task) {
+            TimerEvents.TimerSample event = beginEvent();
+            long start = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(System.nanoTime() - start);
+                commitEvent(event);
+            }
+        }
+
+        // Null unless a JFR recording wants timer samples
+        private static TimerEvents.TimerSample beginEvent() {
+            if (!TimerMetrics.samplesEnabled()) {
+                return null;
+            }
+            TimerEvents.TimerSample event = new TimerEvents.TimerSample();
+            event.begin();
+            return event;
+        }
+
+        private void commitEvent(TimerEvents.TimerSample event) {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.timer = name;
+                    event.commit();
+                }
+            }
+        }
+
+        // Reads sum the stripes without locking: each value is current, but
+        // values read together may straddle a concurrent record
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long minNanos() {
+            long min = minNanos.get();
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+
+        public long maxNanos() {
+            long max = maxNanos.get();
+            return max == Long.MIN_VALUE ? 0 : max;
+        }
+
+        public double meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+
+        /** Clears the statistics; records made while resetting may be lost. */
+        public void reset() {
+            count.reset();
+            totalNanos.reset();
+            minNanos.reset();
+            maxNanos.reset();
+        }
+
+        @Override
+        public String toString() {
+            return name + " count=" + count() + " mean=" + Math.round(meanNanos()) + "ns";
+        }
+    }
+
+    /**
+     * One measurement in progress. Samples are pooled per thread: close it
+     * on the thread that started it, and do not touch it after closing. The
+     * next start() on that thread may hand out the same object, so a stale
+     * reference would read or close that newer measurement.
+     */
+    public static final class Sample implements AutoCloseable {
+        private final SampleStack owner;
+        private Timer timer;
+        private TimerEvents.TimerSample event;
+        private long startNanos;
+        private boolean open;
+
+        private Sample(SampleStack owner) {
+            this.owner = owner;
+        }
+
+        /** Nanoseconds since the sample started. */
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        /**
+         * Records the elapsed time and returns the sample to its pool. Only
+         * a repeated close before any further start() on this thread is
+         * ignored; after that the object may belong to a new measurement.
+         */
+        @Override
+        public void close() {
+            if (open) {
+                long elapsed = System.nanoTime() - startNanos;
+                open = false;
+                timer.record(elapsed);
+                timer.commitEvent(event);
+                event = null;
+                owner.release();
+            }
+        }
+    }
+
+    // Nested samples on one thread close innermost first, so the pool is a
+    // stack; one closed out of order stays allocated until those above it close
+    private static final class SampleStack {
+        private Sample[] samples = new Sample[8];
+        private int depth;
+
+        Sample push(Timer timer, long startNanos) {
+            if (depth == samples.length) {
+                samples = Arrays.copyOf(samples, depth * 2);
+            }
+            Sample sample = samples[depth];
+            if (sample == null) {
+                sample = new Sample(this);
+                samples[depth] = sample;
+            }
+            depth++;
+            sample.timer = timer;
+            sample.event = Timer.beginEvent();
+            sample.open = true;
+            sample.startNanos = startNanos;
+            return sample;
+        }
+
+        void release() {
+            while (depth > 0 && !samples[depth - 1].open) {
+                samples[--depth].timer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.staxtech.stopwatch;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * TimerEvents - JDK Flight Recorder events for named Stopwatch timers
+ * Features:
+ * - One duration event per measurement, so timed blocks line up with GC
+ * pauses and CPU samples in a recording
+ * - Periodic totals for every timer, emitted once a second while a
+ * recording is running
+ * Same category and naming as the window's events in StopwatchEvents.
+ */
+final class TimerEvents {
+
+    private static final String CATEGORY = "Stopwatch Clock";
+
+    private TimerEvents() {
+    }
+
+    @Name("stopwatchclock.TimerSample")
+    @Label("Timer Sample")
+    @Description("One measurement of a named Stopwatch timer")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("0 ns")
+    static final class TimerSample extends Event {
+        @Label("Timer")
+        String timer;
+    }
+
+    @Name("stopwatchclock.TimerStatistics")
+    @Label("Timer Statistics")
+    @Description("Totals of a named Stopwatch timer since it was created or reset")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Period("1 s")
+    static final class TimerStatistics extends Event {
+        @Label("Timer")
+        String timer;
+
+        @Label("Count")
+        long count;
+
+        @Label("Total")
+        @Timespan
+        long total;
+
+        @Label("Mean")
+        @Timespan
+        long mean;
+
+        @Label("Min")
+        @Timespan
+        long min;
+
+        @Label("Max")
+        @Timespan
+        long max;
+    }
+}
@@ -0,0 +1,23 @@
+package com.staxtech.stopwatch;
+
+/**
+ * TimerMXBean - JMX view of one named Stopwatch timer
+ * Registered as StopwatchClock:type=Timer,name="..." when the timer is
+ * first used. Durations are in nanoseconds.
+ */
+public interface TimerMXBean {
+
+    String getName();
+
+    long getCount();
+
+    long getTotalNanos();
+
+    double getMeanNanos();
+
+    long getMinNanos();
+
+    long getMaxNanos();
+
+    void reset();
+}
@@ -0,0 +1,111 @@
+package com.staxtech.stopwatch;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * TimerMetrics - publishes named Stopwatch timers over JMX and JFR
+ * Features:
+ * - An MXBean per timer, registered as StopwatchClock:type=Timer,name="..."
+ * alongside the window's beans (see StopwatchMetrics)
+ * - Periodic JFR statistics events for every timer
+ * - samplesEnabled() lets the timing hot path skip JFR entirely, without
+ * allocating, when no recording wants timer samples
+ */
+final class TimerMetrics {
+
+    private static final String DOMAIN = "StopwatchClock";
+
+    // Only ever asked isEnabled(), which reads the event type's state
+    private static final TimerEvents.TimerSample SAMPLE_PROBE = new TimerEvents.TimerSample();
+
+    static {
+        FlightRecorder.addPeriodicEvent(TimerEvents.TimerStatistics.class, TimerMetrics::emitTimerStatistics);
+    }
+
+    private TimerMetrics() {
+    }
+
+    /** True while a recording has timer sample events enabled. */
+    static boolean samplesEnabled() {
+        return SAMPLE_PROBE.isEnabled();
+    }
+
+    /** Registers the MXBean for a newly created timer. */
+    static void registerTimer(Stopwatch.Timer timer) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=Timer,name=" + ObjectName.quote(timer.name()));
+            TimerBean bean = new TimerBean(timer);
+            try {
+                server.registerMBean(bean, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(bean, name);
+            }
+        } catch (JMException e) {
+            // Monitoring is optional; timing carries on without it
+            e.printStackTrace();
+        }
+    }
+
+    private static void emitTimerStatistics() {
+        for (Stopwatch.Timer timer : Stopwatch.timers()) {
+            TimerEvents.TimerStatistics event = new TimerEvents.TimerStatistics();
+            event.timer = timer.name();
+            event.count = timer.count();
+            event.total = timer.totalNanos();
+            event.mean = Math.round(timer.meanNanos());
+            event.min = timer.minNanos();
+            event.max = timer.maxNanos();
+            event.commit();
+        }
+    }
+
+    private static final class TimerBean implements TimerMXBean {
+        private final Stopwatch.Timer timer;
+
+        TimerBean(Stopwatch.Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public String getName() {
+            return timer.name();
+        }
+
+        @Override
+        public long getCount() {
+            return timer.count();
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return timer.totalNanos();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return timer.meanNanos();
+        }
+
+        @Override
+        public long getMinNanos() {
+            return timer.minNanos();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return timer.maxNanos();
+        }
+
+        @Override
+        public void reset() {
+            timer.reset();
+        }
+    }
+}
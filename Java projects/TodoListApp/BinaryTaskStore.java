@@ -0,0 +1,403 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * BinaryTaskStore - TaskStore kept in a compact append-only record file
+ * Features:
+ * - One record per saved task state: varint length, then the body, then a
+ * CRC32C of the body. The body is a varint id, a flags byte (completion
+ * and deletion bits), a priority byte, a varint creation timestamp and
+ * the text and tags as varint-length-prefixed UTF-8
+ * - Saves append only the records staged since the last flush, then fsync;
+ * the newest record for an id wins and a tombstone deletes it
+ * - Loading maps the file and indexes it in one pass over the bytes, then
+ * decodes only the newest record of each live task
+ * - A torn or corrupt tail, left by a crash mid-save, is truncated away
+ * - Once stale records outweigh live ones, a flush compacts the file by
+ * copying the live records into a new file that atomically replaces it
+ * - The 16-byte header (magic, version, next unused id) keeps ids of tasks
+ * whose tombstones compaction dropped from ever being issued again
+ */
+final class BinaryTaskStore implements TaskStore {
+
+    private static final int MAGIC = 0x54444C31; // "TDL1"
+    private static final int VERSION = 2;
+    // Version 1 kept a creation timestamp where version 2 keeps the next id
+    private static final int VERSION_1 = 1;
+    private static final int NEXT_ID_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int CRC_SIZE = 4;
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_DELETED = 2;
+    // Compact when the file is this many times the live data, past a floor
+    private static final int COMPACT_RATIO = 2;
+    private static final long COMPACT_MIN_BYTES = 1 << 20;
+    private static final int COPY_CHUNK = 1 << 20;
+
+    private final Path file;
+    private FileChannel channel;
+    private long fileSize;
+
+    // Newest record of each id: file offset (-1 when absent) and length
+    private long[] offsets = new long[1024];
+    private int[] lengths = new int[1024];
+    private int nextId;
+    private long liveBytes;
+    private long compactAfter = COMPACT_MIN_BYTES;
+
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private byte[] scratch = new byte[256];
+
+    private BinaryTaskStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+        Arrays.fill(offsets, -1);
+    }
+
+    /** Opens or creates the store at {@code file}; call {@link #load} next. */
+    static BinaryTaskStore open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            BinaryTaskStore store = new BinaryTaskStore(file, channel);
+            if (channel.size() < HEADER_SIZE) {
+                writeHeader(channel, 0);
+            }
+            store.fileSize = channel.size();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void load(Sink sink) throws IOException {
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Task file too large to map: " + fileSize + " bytes");
+        }
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        int version = data.getInt(4);
+        if (data.getInt(0) != MAGIC || (version != VERSION && version != VERSION_1)) {
+            throw new IOException("Not a task file: " + file);
+        }
+        if (version == VERSION) {
+            long headerNextId = data.getLong(NEXT_ID_OFFSET);
+            if (headerNextId < 0 || headerNextId > Integer.MAX_VALUE - 8) {
+                throw new IOException("Corrupt task file header: " + file);
+            }
+            nextId = (int) headerNextId;
+            ensureCapacity(nextId);
+        }
+        int end = index(data);
+        if (end < fileSize) {
+            channel.truncate(end);
+            channel.force(false);
+            fileSize = end;
+        }
+        for (int id = 0; id < nextId; id++) {
+            if (offsets[id] >= 0) {
+                decode(data, (int) offsets[id], sink);
+            }
+        }
+    }
+
+    @Override
+    public int newId() {
+        ensureCapacity(nextId);
+        return nextId++;
+    }
+
+    @Override
+    public void put(int id, String text, int priority, String tags, long createdMillis, boolean completed) {
+        checkId(id);
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] tagBytes = tags.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = varintSize(id) + 2 + varintSize(createdMillis) + varintSize(textBytes.length)
+                + textBytes.length + varintSize(tagBytes.length) + tagBytes.length;
+        int start = beginRecord(bodyLength);
+        putVarint(pending, id);
+        pending.put((byte) (completed ? FLAG_COMPLETED : 0));
+        pending.put((byte) priority);
+        putVarint(pending, createdMillis);
+        putVarint(pending, textBytes.length);
+        pending.put(textBytes);
+        putVarint(pending, tagBytes.length);
+        pending.put(tagBytes);
+        endRecord(id, start, bodyLength, false);
+    }
+
+    @Override
+    public void delete(int id) {
+        checkId(id);
+        int bodyLength = varintSize(id) + 1;
+        int start = beginRecord(bodyLength);
+        putVarint(pending, id);
+        pending.put((byte) FLAG_DELETED);
+        endRecord(id, start, bodyLength, true);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pending.position() > 0) {
+            int staged = pending.position();
+            pending.flip();
+            long position = fileSize;
+            try {
+                while (pending.hasRemaining()) {
+                    position += channel.write(pending, position);
+                }
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                // Keep every staged record; the next flush rewrites them from
+                // the same offset, over anything this attempt left behind
+                pending.limit(pending.capacity()).position(staged);
+                throw e;
+            }
+            pending.clear();
+            fileSize = position;
+        }
+        if (fileSize > compactAfter && fileSize > COMPACT_RATIO * (liveBytes + HEADER_SIZE)) {
+            compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    long fileSize() {
+        return fileSize + pending.position();
+    }
+
+    // Pass over every record, keeping the newest offset per id; returns
+    // where the valid records end
+    private int index(ByteBuffer data) {
+        int limit = data.limit();
+        int pos = HEADER_SIZE;
+        while (pos < limit) {
+            data.position(pos);
+            long bodyLength = getVarint(data, limit);
+            int bodyStart = data.position();
+            if (bodyLength < 2 || bodyLength > limit - bodyStart - CRC_SIZE) {
+                break; // torn length or body
+            }
+            int bodyEnd = bodyStart + (int) bodyLength;
+            checksum.reset();
+            checksum.update(data.limit(bodyEnd));
+            data.limit(limit);
+            if ((int) checksum.getValue() != data.getInt(bodyEnd)) {
+                break;
+            }
+            data.position(bodyStart);
+            long id = getVarint(data, bodyEnd);
+            if (id < 0 || id >= Integer.MAX_VALUE || data.position() >= bodyEnd) {
+                break;
+            }
+            int flags = data.get();
+            int recordEnd = bodyEnd + CRC_SIZE;
+            track((int) id, pos, recordEnd - pos, (flags & FLAG_DELETED) != 0);
+            nextId = Math.max(nextId, (int) id + 1);
+            pos = recordEnd;
+        }
+        return pos;
+    }
+
+    private void decode(ByteBuffer data, int offset, Sink sink) {
+        data.position(offset);
+        int limit = data.limit();
+        getVarint(data, limit); // body length
+        int id = (int) getVarint(data, limit);
+        int flags = data.get();
+        int priority = data.get();
+        long created = getVarint(data, limit);
+        String text = getString(data, limit);
+        String tags = getString(data, limit);
+        sink.task(id, text, priority, tags, created, (flags & FLAG_COMPLETED) != 0);
+    }
+
+    private String getString(ByteBuffer data, int limit) {
+        int length = (int) getVarint(data, limit);
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        data.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int beginRecord(int bodyLength) {
+        int needed = varintSize(bodyLength) + bodyLength + CRC_SIZE;
+        if (pending.remaining() < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        int start = pending.position();
+        putVarint(pending, bodyLength);
+        return start;
+    }
+
+    private void endRecord(int id, int start, int bodyLength, boolean deleted) {
+        int bodyStart = pending.position() - bodyLength;
+        checksum.reset();
+        checksum.update(pending.array(), bodyStart, bodyLength);
+        pending.putInt((int) checksum.getValue());
+        track(id, fileSize + start, pending.position() - start, deleted);
+    }
+
+    private void track(int id, long offset, int length, boolean deleted) {
+        ensureCapacity(id);
+        if (offsets[id] >= 0) {
+            liveBytes -= lengths[id];
+        }
+        if (deleted) {
+            offsets[id] = -1;
+            lengths[id] = 0;
+        } else {
+            offsets[id] = offset;
+            lengths[id] = length;
+            liveBytes += length;
+        }
+    }
+
+    // Copies the newest record of every live task, in id order, into a new
+    // file that then replaces this one
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        long[] newOffsets = new long[offsets.length];
+        Arrays.fill(newOffsets, -1);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Tombstones are not copied, so the header carries the next id instead
+            writeHeader(out, nextId);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_CHUNK);
+            long position = HEADER_SIZE;
+            for (int id = 0; id < nextId; id++) {
+                if (offsets[id] < 0) {
+                    continue;
+                }
+                if (buffer.remaining() < lengths[id]) {
+                    position += drain(buffer, out, position);
+                    if (buffer.capacity() < lengths[id]) {
+                        buffer = ByteBuffer.allocateDirect(lengths[id]);
+                    }
+                }
+                int start = buffer.position();
+                newOffsets[id] = position + start;
+                buffer.limit(start + lengths[id]);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offsets[id] + buffer.position() - start) < 0) {
+                        throw new IOException("Unexpected end of task file");
+                    }
+                }
+                buffer.limit(buffer.capacity());
+            }
+            position += drain(buffer, out, position);
+            out.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The file may be locked, e.g. still mapped on Windows; keep
+            // appending to it and try again on a later flush
+            Files.deleteIfExists(temp);
+            compactAfter = fileSize * 2;
+            return;
+        }
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileSize = channel.size();
+        offsets = newOffsets;
+    }
+
+    private static long drain(ByteBuffer buffer, FileChannel out, long position) throws IOException {
+        buffer.flip();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= offsets.length) {
+            int capacity = Math.max(id + 1, offsets.length * 2);
+            int from = offsets.length;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            Arrays.fill(offsets, from, capacity, -1);
+        }
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= nextId) {
+            throw new IllegalArgumentException("Unknown task id " + id);
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, int nextId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(nextId).flip();
+        channel.truncate(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    // Unsigned LEB128 varints: seven bits per byte, high bit set on all but
+    // the last byte
+
+    private static int varintSize(long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value | 1);
+        return (bits + 6) / 7;
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // Returns -1 if the varint runs past limit or is longer than ten bytes
+    private static long getVarint(ByteBuffer buffer, int limit) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (buffer.position() >= limit) {
+                return -1;
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,35 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * TaskStore - persistent storage behind TodoListApp
+ * Features:
+ * - Tasks are identified by ids the store hands out, stable across restarts
+ * - Changes are staged with put and delete and become durable together on
+ * flush, so a save writes only what changed since the last one
+ * - load replays every stored task in id order, which is creation order
+ * Implementations need not be thread-safe; the app uses its store from
+ * the event dispatch thread only.
+ */
+interface TaskStore extends Closeable {
+
+    /** Receives stored tasks from {@link #load}. */
+    interface Sink {
+        void task(int id, String text, int priority, String tags, long createdMillis, boolean completed);
+    }
+
+    /** Replays every stored task into {@code sink}, in id order. */
+    void load(Sink sink) throws IOException;
+
+    /** A new id, never handed out before by this store. */
+    int newId();
+
+    /** Stages the full current state of task {@code id}. */
+    void put(int id, String text, int priority, String tags, long createdMillis, boolean completed);
+
+    /** Stages the removal of task {@code id}. */
+    void delete(int id);
+
+    /** Makes every staged change durable; if it fails, they stay staged for the next flush. */
+    void flush() throws IOException;
+}
@@ -0,0 +1,389 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * TaskTableModel - columnar table model behind TodoListApp
+ * Features:
+ * - One array per column instead of a Vector of boxed cells per row:
+ * completion is a BitSet, priority a byte, creation time a long of epoch
+ * milliseconds
+ * - Tags are interned; rows with the same tags share one String and each
+ * stores only its int id
+ * - Counts of all, completed, per-priority and per-tag tasks are kept up
+ * to date by every change, so reading them never scans the rows
+ * - completeAll and removeCompleted change any number of rows in one pass
+ * and fire a single table event
+ * - Cells are made on demand, so Created is an epoch millisecond Long that
+ * the view formats only for the rows it paints
+ * - Adding and removing a task fires an event for exactly that row
+ * Every task also carries the id its TaskStore knows it by.
+ */
+final class TaskTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+    static final String[] PRIORITIES = { "Low", "Medium", "High", "Urgent" };
+    static final int HIGH_PRIORITY = 2;
+    static final int URGENT_PRIORITY = 3;
+
+    static final int TASK_COLUMN = 0;
+    static final int PRIORITY_COLUMN = 1;
+    static final int TAGS_COLUMN = 2;
+    static final int CREATED_COLUMN = 3;
+    static final int COMPLETED_COLUMN = 4;
+
+    private static final String[] COLUMN_NAMES = { "Task", "Priority", "Tags", "Created", "Completed" };
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private byte[] priorities = new byte[INITIAL_CAPACITY];
+    private int[] tagSets = new int[INITIAL_CAPACITY];
+    private long[] created = new long[INITIAL_CAPACITY];
+    private BitSet completed = new BitSet();
+
+    // A row's tags field is interned as a tag set; each set lists the ids
+    // of the comma-separated tags in it
+    private final List<String> tagSetNames = new ArrayList<>();
+    private final Map<String, Integer> tagSetIds = new HashMap<>();
+    private final List<int[]> tagSetMembers = new ArrayList<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final Map<String, Integer> tagIds = new HashMap<>();
+
+    private int completedCount;
+    private final int[] priorityCounts = new int[PRIORITIES.length];
+    private int[] tagCounts = new int[INITIAL_CAPACITY];
+
+    static String priorityName(int priority) {
+        return PRIORITIES[priority];
+    }
+
+    static int priorityIndex(String name) {
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            if (PRIORITIES[i].equals(name)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case CREATED_COLUMN:
+                return Long.class;
+            case COMPLETED_COLUMN:
+                return Boolean.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COMPLETED_COLUMN; // Only completion checkbox is editable
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        checkRow(row);
+        switch (column) {
+            case TASK_COLUMN:
+                return texts[row];
+            case PRIORITY_COLUMN:
+                return priorityName(priorities[row]);
+            case TAGS_COLUMN:
+                return tagSetNames.get(tagSets[row]);
+            case CREATED_COLUMN:
+                return created[row];
+            case COMPLETED_COLUMN:
+                return completed.get(row);
+            default:
+                throw new IllegalArgumentException("No column " + column);
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != COMPLETED_COLUMN) {
+            throw new IllegalArgumentException("Column " + column + " is not editable");
+        }
+        setCompleted(row, (Boolean) value);
+    }
+
+    int id(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    String text(int row) {
+        checkRow(row);
+        return texts[row];
+    }
+
+    int priority(int row) {
+        checkRow(row);
+        return priorities[row];
+    }
+
+    String tags(int row) {
+        checkRow(row);
+        return tagSetNames.get(tagSets[row]);
+    }
+
+    long createdMillis(int row) {
+        checkRow(row);
+        return created[row];
+    }
+
+    boolean isCompleted(int row) {
+        checkRow(row);
+        return completed.get(row);
+    }
+
+    /** First completed row at or after {@code from}, or -1. */
+    int nextCompleted(int from) {
+        int row = completed.nextSetBit(from);
+        return row < size ? row : -1;
+    }
+
+    /** First incomplete row at or after {@code from}, or -1. */
+    int nextIncomplete(int from) {
+        int row = completed.nextClearBit(from);
+        return row < size ? row : -1;
+    }
+
+    int completedCount() {
+        return completedCount;
+    }
+
+    int priorityCount(int priority) {
+        return priorityCounts[priority];
+    }
+
+    /** Tasks carrying {@code tag} among their comma-separated tags. */
+    int tagCount(String tag) {
+        Integer id = tagIds.get(tag);
+        return id == null ? 0 : tagCounts[id];
+    }
+
+    /** Task count per tag, in the order tags first appeared; unused tags are left out. */
+    Map<String, Integer> tagCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int id = 0; id < tagNames.size(); id++) {
+            if (tagCounts[id] > 0) {
+                counts.put(tagNames.get(id), tagCounts[id]);
+            }
+        }
+        return counts;
+    }
+
+    /** Appends a task and returns its row. */
+    int addTask(int id, String text, int priority, String tags, long createdMillis, boolean done) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        texts[row] = text;
+        priorities[row] = (byte) checkPriority(priority);
+        tagSets[row] = intern(tags);
+        created[row] = createdMillis;
+        completed.set(row, done);
+        count(row, 1);
+        fireTableRowsInserted(row, row);
+        return row;
+    }
+
+    /** Replaces the editable text fields of a task with one update event. */
+    void updateTask(int row, String text, int priority, String tags) {
+        checkRow(row);
+        count(row, -1);
+        texts[row] = text;
+        priorities[row] = (byte) checkPriority(priority);
+        tagSets[row] = intern(tags);
+        count(row, 1);
+        fireTableRowsUpdated(row, row);
+    }
+
+    void setCompleted(int row, boolean done) {
+        checkRow(row);
+        if (completed.get(row) != done) {
+            completed.set(row, done);
+            completedCount += done ? 1 : -1;
+            fireTableCellUpdated(row, COMPLETED_COLUMN);
+        }
+    }
+
+    /** Marks every task completed with one table event; returns how many changed. */
+    int completeAll() {
+        int changed = size - completedCount;
+        if (changed > 0) {
+            completed.set(0, size);
+            completedCount = size;
+            fireTableDataChanged();
+        }
+        return changed;
+    }
+
+    /**
+     * Removes every completed task with one table event, moving each run of
+     * remaining rows once; returns how many were removed.
+     */
+    int removeCompleted() {
+        int removed = completedCount;
+        if (removed == 0) {
+            return 0;
+        }
+        int write = 0;
+        int read = 0;
+        while (read < size) {
+            int runEnd = nextCompleted(read);
+            if (runEnd < 0) {
+                runEnd = size;
+            }
+            moveRows(read, write, runEnd - read);
+            write += runEnd - read;
+            read = runEnd;
+            int completedEnd = nextIncomplete(read);
+            if (completedEnd < 0) {
+                completedEnd = size;
+            }
+            for (int row = read; row < completedEnd; row++) {
+                count(row, -1);
+            }
+            read = completedEnd;
+        }
+        Arrays.fill(texts, write, size, null);
+        size = write;
+        completed = new BitSet();
+        fireTableDataChanged();
+        return removed;
+    }
+
+    void removeTask(int row) {
+        checkRow(row);
+        count(row, -1);
+        moveRows(row + 1, row, size - row - 1);
+        removeCompletionBit(row);
+        size--;
+        texts[size] = null;
+        fireTableRowsDeleted(row, row);
+    }
+
+    // BitSet cannot shift, so shift its words down one bit from row on
+    private void removeCompletionBit(int row) {
+        long[] words = completed.toLongArray();
+        int first = row >>> 6;
+        if (first >= words.length) {
+            return;
+        }
+        long below = (1L << row) - 1;
+        words[first] = (words[first] & below) | ((words[first] >>> 1) & ~below);
+        for (int i = first + 1; i < words.length; i++) {
+            words[i - 1] |= words[i] << 63;
+            words[i] >>>= 1;
+        }
+        completed = BitSet.valueOf(words);
+    }
+
+    private void moveRows(int from, int to, int length) {
+        if (from != to && length > 0) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(texts, from, texts, to, length);
+            System.arraycopy(priorities, from, priorities, to, length);
+            System.arraycopy(tagSets, from, tagSets, to, length);
+            System.arraycopy(created, from, created, to, length);
+        }
+    }
+
+    // Adds (delta 1) or removes (delta -1) a row's contribution to the counts
+    private void count(int row, int delta) {
+        if (completed.get(row)) {
+            completedCount += delta;
+        }
+        priorityCounts[priorities[row]] += delta;
+        for (int tag : tagSetMembers.get(tagSets[row])) {
+            tagCounts[tag] += delta;
+        }
+    }
+
+    private int intern(String tags) {
+        Integer id = tagSetIds.get(tags);
+        if (id == null) {
+            id = tagSetNames.size();
+            tagSetNames.add(tags);
+            tagSetIds.put(tags, id);
+            tagSetMembers.add(splitTags(tags));
+        }
+        return id;
+    }
+
+    private int[] splitTags(String tags) {
+        int[] members = new int[0];
+        for (String part : tags.split(",")) {
+            String tag = part.trim();
+            if (tag.isEmpty()) {
+                continue;
+            }
+            Integer id = tagIds.get(tag);
+            if (id == null) {
+                id = tagNames.size();
+                tagNames.add(tag);
+                tagIds.put(tag, id);
+                if (id == tagCounts.length) {
+                    tagCounts = Arrays.copyOf(tagCounts, id * 2);
+                }
+            }
+            int tagId = id;
+            if (Arrays.stream(members).noneMatch(member -> member == tagId)) {
+                members = Arrays.copyOf(members, members.length + 1);
+                members[members.length - 1] = tagId;
+            }
+        }
+        return members;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        tagSets = Arrays.copyOf(tagSets, capacity);
+        created = Arrays.copyOf(created, capacity);
+    }
+
+    private static int checkPriority(int priority) {
+        if (priority < 0 || priority >= PRIORITIES.length) {
+            throw new IllegalArgumentException("No priority " + priority);
+        }
+        return priority;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+}
@@ -1,11 +1,20 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
+import javax.swing.table.TableStringConverter;
 
 public class TodoListApp extends JFrame {
     // Dark theme color constants
@@ -16,15 +25,21 @@ public class TodoListApp extends JFrame {
     private static final Color DARK_SELECTED = new Color(70, 130, 180);
     private static final Color DARK_BUTTON_BG = new Color(50, 50, 50);
 
-    private DefaultTableModel tableModel;
+    private static final DateTimeFormatter CREATED_FORMAT = DateTimeFormatter.ofPattern("MM/dd HH:mm");
+
+    private TaskTableModel tableModel;
     private JTable table;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private TableRowSorter<TaskTableModel> sorter;
     private JTextField taskField;
     private JTextField tagField;
     private JComboBox<String> priorityCombo;
     private JTextField searchField;
     private JLabel statusLabel;
 
+    // Task storage; null when it could not be opened
+    private TaskStore store;
+    private boolean flushScheduled;
+
     public TodoListApp() {
         setTitle("Modern To-Do List Manager - Dark Theme");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -41,18 +56,8 @@ public class TodoListApp extends JFrame {
             e.printStackTrace();
         }
 
-        // Enhanced table model with more columns
-        tableModel = new DefaultTableModel(new Object[] { "Task", "Priority", "Tags", "Created", "Completed" }, 0) {
-            @Override
-            public Class<?> getColumnClass(int column) {
-                return (column == 4) ? Boolean.class : String.class;
-            }
-
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 4; // Only completion checkbox is editable
-            }
-        };
+        tableModel = new TaskTableModel();
+        openStore();
         table = new JTable(tableModel);
         table.setRowHeight(30);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -72,9 +77,25 @@ public class TodoListApp extends JFrame {
         table.getColumnModel().getColumn(2).setPreferredWidth(150); // Tags
         table.getColumnModel().getColumn(3).setPreferredWidth(120); // Created
         table.getColumnModel().getColumn(4).setPreferredWidth(80); // Completed
+        table.getColumnModel().getColumn(TaskTableModel.CREATED_COLUMN).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(formatCreated((Long) value));
+            }
+        });
 
         // Add sorter for search functionality
         sorter = new TableRowSorter<>(tableModel);
+        // Priorities sort by rank, and search matches Created as displayed
+        sorter.setComparator(TaskTableModel.PRIORITY_COLUMN,
+                (String a, String b) -> TaskTableModel.priorityIndex(a) - TaskTableModel.priorityIndex(b));
+        sorter.setStringConverter(new TableStringConverter() {
+            @Override
+            public String toString(TableModel model, int row, int column) {
+                Object value = model.getValueAt(row, column);
+                return column == TaskTableModel.CREATED_COLUMN ? formatCreated((Long) value) : value.toString();
+            }
+        });
         table.setRowSorter(sorter);
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createTitledBorder(
@@ -91,7 +112,13 @@ public class TodoListApp extends JFrame {
 
         // Create search panel
         createSearchPanel(); // Status bar
-        statusLabel = new JLabel("Ready");
+        statusLabel = new JLabel("Ready") {
+            @Override
+            public String getToolTipText(MouseEvent event) {
+                return tagSummary();
+            }
+        };
+        ToolTipManager.sharedInstance().registerComponent(statusLabel);
         statusLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
         statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         statusLabel.setForeground(DARK_TEXT);
@@ -106,9 +133,101 @@ public class TodoListApp extends JFrame {
         ((JComponent) getContentPane()).setBorder(new EmptyBorder(10, 10, 10, 10));
         getContentPane().setBackground(DARK_BACKGROUND);
 
+        tableModel.addTableModelListener(e -> updateStatusLabel());
         updateStatusLabel();
     }
 
+    // Task file location: -Dtodolist.file, else ~/.todolistapp/tasks.db
+    private static Path storePath() {
+        String configured = System.getProperty("todolist.file");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".todolistapp", "tasks.db");
+    }
+
+    private void openStore() {
+        BinaryTaskStore opened;
+        try {
+            opened = BinaryTaskStore.open(storePath());
+        } catch (IOException e) {
+            // Keep working without persistence
+            e.printStackTrace();
+            return;
+        }
+        try {
+            opened.load(tableModel::addTask);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            tableModel = new TaskTableModel();
+            try {
+                opened.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            return;
+        }
+        store = opened;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                opened.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "todolist-store-close"));
+        tableModel.addTableModelListener(this::taskChanged);
+    }
+
+    // Stages added and edited rows. Removals and bulk changes are staged by
+    // the actions making them: a removed row is gone by the time its event
+    // arrives, and a whole-table event does not say which rows changed.
+    private void taskChanged(TableModelEvent e) {
+        if (e.getType() == TableModelEvent.DELETE || e.getFirstRow() == TableModelEvent.HEADER_ROW
+                || e.getLastRow() == Integer.MAX_VALUE) {
+            return;
+        }
+        int last = Math.min(e.getLastRow(), tableModel.getRowCount() - 1);
+        for (int row = e.getFirstRow(); row <= last; row++) {
+            stageTask(row, tableModel.isCompleted(row));
+        }
+        scheduleFlush();
+    }
+
+    private void stageTask(int row, boolean completed) {
+        store.put(tableModel.id(row), tableModel.text(row), tableModel.priority(row), tableModel.tags(row),
+                tableModel.createdMillis(row), completed);
+    }
+
+    private void forgetTask(int modelRow) {
+        if (store != null) {
+            store.delete(tableModel.id(modelRow));
+            scheduleFlush();
+        }
+    }
+
+    // One save per burst of changes, e.g. after Complete All touched every row
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flushStore);
+        }
+    }
+
+    private void flushStore() {
+        flushScheduled = false;
+        try {
+            store.flush();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not save tasks: " + e.getMessage(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String formatCreated(long createdMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdMillis), ZoneId.systemDefault())
+                .format(CREATED_FORMAT);
+    }
+
     private void setupDarkTheme() {
         // Set main frame background
         getContentPane().setBackground(DARK_BACKGROUND);
@@ -217,7 +336,7 @@ public class TodoListApp extends JFrame {
                 BorderFactory.createEmptyBorder(5, 8, 5, 8)));
 
         // Priority combo
-        priorityCombo = new JComboBox<>(new String[] { "Low", "Medium", "High", "Urgent" });
+        priorityCombo = new JComboBox<>(TaskTableModel.PRIORITIES);
         priorityCombo.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         priorityCombo.setBackground(DARK_BACKGROUND);
         priorityCombo.setForeground(DARK_TEXT);
@@ -355,11 +474,12 @@ public class TodoListApp extends JFrame {
     private void addTask() {
         String task = taskField.getText().trim();
         String tags = tagField.getText().trim();
-        String priority = (String) priorityCombo.getSelectedItem();
+        int priority = priorityCombo.getSelectedIndex();
 
         if (!task.isEmpty()) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MM/dd HH:mm"));
-            tableModel.addRow(new Object[] { task, priority, tags, timestamp, false });
+            long created = System.currentTimeMillis();
+            int id = store == null ? -1 : store.newId();
+            tableModel.addTask(id, task, priority, tags, created, false);
 
             // Clear input fields
             taskField.setText("");
@@ -382,9 +502,9 @@ public class TodoListApp extends JFrame {
         int selected = table.getSelectedRow();
         if (selected >= 0) {
             int modelRow = table.convertRowIndexToModel(selected);
-            String currentTask = (String) tableModel.getValueAt(modelRow, 0);
-            String currentPriority = (String) tableModel.getValueAt(modelRow, 1);
-            String currentTags = (String) tableModel.getValueAt(modelRow, 2); // Create edit dialog
+            String currentTask = tableModel.text(modelRow);
+            int currentPriority = tableModel.priority(modelRow);
+            String currentTags = tableModel.tags(modelRow); // Create edit dialog
             JDialog editDialog = new JDialog(this, "Edit Task", true);
             editDialog.setLayout(new GridBagLayout());
             editDialog.getContentPane().setBackground(DARK_BACKGROUND);
@@ -409,8 +529,8 @@ public class TodoListApp extends JFrame {
                     BorderFactory.createLineBorder(new Color(60, 60, 60)),
                     BorderFactory.createEmptyBorder(5, 8, 5, 8)));
 
-            JComboBox<String> editPriorityCombo = new JComboBox<>(new String[] { "Low", "Medium", "High", "Urgent" });
-            editPriorityCombo.setSelectedItem(currentPriority);
+            JComboBox<String> editPriorityCombo = new JComboBox<>(TaskTableModel.PRIORITIES);
+            editPriorityCombo.setSelectedIndex(currentPriority);
             editPriorityCombo.setFont(new Font("Segoe UI", Font.PLAIN, 13));
             editPriorityCombo.setBackground(DARK_PANEL);
             editPriorityCombo.setForeground(DARK_TEXT);
@@ -449,11 +569,9 @@ public class TodoListApp extends JFrame {
             saveButton.addActionListener(e -> {
                 String updatedTask = editTaskField.getText().trim();
                 if (!updatedTask.isEmpty()) {
-                    tableModel.setValueAt(updatedTask, modelRow, 0);
-                    tableModel.setValueAt(editPriorityCombo.getSelectedItem(), modelRow, 1);
-                    tableModel.setValueAt(editTagField.getText().trim(), modelRow, 2);
+                    tableModel.updateTask(modelRow, updatedTask, editPriorityCombo.getSelectedIndex(),
+                            editTagField.getText().trim());
                     editDialog.dispose();
-                    updateStatusLabel();
                 }
             });
 
@@ -487,8 +605,8 @@ public class TodoListApp extends JFrame {
 
             if (result == JOptionPane.YES_OPTION) {
                 int modelRow = table.convertRowIndexToModel(selected);
-                tableModel.removeRow(modelRow);
-                updateStatusLabel();
+                forgetTask(modelRow);
+                tableModel.removeTask(modelRow);
             }
         } else {
             JOptionPane.showMessageDialog(this, "Please select a task to delete.", "No Selection",
@@ -497,19 +615,23 @@ public class TodoListApp extends JFrame {
     }
 
     private void markAllComplete() {
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            tableModel.setValueAt(true, i, 4);
+        if (store != null) {
+            for (int row = tableModel.nextIncomplete(0); row >= 0; row = tableModel.nextIncomplete(row + 1)) {
+                stageTask(row, true);
+            }
+            scheduleFlush();
         }
-        updateStatusLabel();
+        tableModel.completeAll();
     }
 
     private void deleteCompletedTasks() {
-        for (int i = tableModel.getRowCount() - 1; i >= 0; i--) {
-            if ((Boolean) tableModel.getValueAt(i, 4)) {
-                tableModel.removeRow(i);
+        if (store != null) {
+            for (int row = tableModel.nextCompleted(0); row >= 0; row = tableModel.nextCompleted(row + 1)) {
+                store.delete(tableModel.id(row));
             }
+            scheduleFlush();
         }
-        updateStatusLabel();
+        tableModel.removeCompleted();
     }
 
     private void performSearch() {
@@ -517,7 +639,7 @@ public class TodoListApp extends JFrame {
         if (searchText.isEmpty()) {
             sorter.setRowFilter(null);
         } else {
-            sorter.setRowFilter(RowFilter.regexFilter("(?i)" + searchText));
+            sorter.setRowFilter(RowFilter.regexFilter("(?i)" + searchText, 0, 1, 2, 3, 4));
         }
     }
 
@@ -528,14 +650,23 @@ public class TodoListApp extends JFrame {
 
     private void updateStatusLabel() {
         int total = tableModel.getRowCount();
-        int completed = 0;
-        for (int i = 0; i < total; i++) {
-            if ((Boolean) tableModel.getValueAt(i, 4)) {
-                completed++;
-            }
+        int completed = tableModel.completedCount();
+        statusLabel.setText(String.format("Total: %d | Completed: %d | Remaining: %d | Urgent: %d | High: %d",
+                total, completed, total - completed, tableModel.priorityCount(TaskTableModel.URGENT_PRIORITY),
+                tableModel.priorityCount(TaskTableModel.HIGH_PRIORITY)));
+    }
+
+    // Status bar hover text: the most used tags with their task counts
+    private String tagSummary() {
+        Map<String, Integer> counts = tableModel.tagCounts();
+        if (counts.isEmpty()) {
+            return null;
         }
-        statusLabel.setText(String.format("Total: %d | Completed: %d | Remaining: %d",
-                total, completed, total - completed));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(10)
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining(" | ", "Tags - ", ""));
     }
 
     public static void main(String[] args) {
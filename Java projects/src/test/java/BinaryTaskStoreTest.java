@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<String> load(BinaryTaskStore store) throws IOException {
+        List<String> tasks = new ArrayList<>();
+        store.load((id, text, priority, tags, created, completed) -> tasks
+                .add(id + "|" + text + "|" + priority + "|" + tags + "|" + created + "|" + completed));
+        return tasks;
+    }
+
+    @Test
+    void roundTripsTheNewestStateOfEveryLiveTask() throws IOException {
+        Path file = dir.resolve("tasks.db");
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            load(store);
+            int a = store.newId();
+            int b = store.newId();
+            int c = store.newId();
+            store.put(a, "Write report", 2, "work", 1_000L, false);
+            store.put(b, "Grüße an Zoë ✓", 0, "home, misc", 2_000L, true);
+            store.put(c, "Temporary", 1, "", 3_000L, false);
+            store.flush();
+            store.put(a, "Write report", 3, "work, urgent", 1_000L, true);
+            store.delete(c);
+        }
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            assertEquals(List.of("0|Write report|3|work, urgent|1000|true", "1|Grüße an Zoë ✓|0|home, misc|2000|true"),
+                    load(store));
+            assertEquals(3, store.newId());
+        }
+    }
+
+    @Test
+    void truncatesATornTailAndKeepsAppending() throws IOException {
+        Path file = dir.resolve("tasks.db");
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            load(store);
+            for (int i = 0; i < 3; i++) {
+                store.put(store.newId(), "Task " + i, 0, "", i, false);
+                store.flush();
+            }
+        }
+        long complete = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete - 3); // crash in the middle of the last record
+        }
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            assertEquals(2, load(store).size());
+            assertTrue(Files.size(file) < complete - 3, "torn record not truncated");
+            store.put(store.newId(), "After crash", 1, "", 9, false);
+        }
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            List<String> tasks = load(store);
+            assertEquals(3, tasks.size());
+            assertEquals("2|After crash|1||9|false", tasks.get(2));
+        }
+    }
+
+    @Test
+    void stopsAtACorruptRecord() throws IOException {
+        Path file = dir.resolve("tasks.db");
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            load(store);
+            store.put(store.newId(), "Good", 0, "", 1, false);
+            store.flush();
+            store.put(store.newId(), "Flipped", 0, "", 2, false);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 8] ^= 0x20; // inside the text of the last record
+        Files.write(file, bytes);
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            assertEquals(List.of("0|Good|0||1|false"), load(store));
+        }
+    }
+
+    @Test
+    void compactsStaleRecordsWithoutReissuingDeletedIds() throws IOException {
+        Path file = dir.resolve("tasks.db");
+        String text = "x".repeat(500);
+        int kept;
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            load(store);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                int id = store.newId();
+                ids.add(id);
+                store.put(id, text, 0, "", i, false);
+            }
+            store.flush();
+            long before = store.fileSize();
+            kept = ids.get(10);
+            for (int id : ids) {
+                if (id != kept) {
+                    store.delete(id);
+                }
+            }
+            store.flush();
+            assertTrue(store.fileSize() < before / 100, "not compacted: " + store.fileSize());
+        }
+        try (BinaryTaskStore store = BinaryTaskStore.open(file)) {
+            List<String> tasks = load(store);
+            assertEquals(1, tasks.size());
+            assertTrue(tasks.get(0).startsWith(kept + "|"));
+            assertEquals(5_000, store.newId());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BreachFilterTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void clearActiveFilter() {
+        BreachFilter.setActive(null);
+    }
+
+    private BreachFilter build(List<String> corpus) throws IOException {
+        Path text = dir.resolve("corpus.txt");
+        Files.write(text, corpus, StandardCharsets.ISO_8859_1);
+        Path filter = dir.resolve("corpus.bf");
+        BreachFilter.build(text, filter, 0.001);
+        return BreachFilter.load(filter);
+    }
+
+    private BreachFilter buildPins() throws IOException {
+        List<String> pins = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            pins.add(String.format("%04d", i));
+        }
+        return build(pins);
+    }
+
+    @Test
+    void containsEveryCorpusEntryInEveryForm() throws IOException {
+        List<String> corpus = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            corpus.add("password" + i);
+        }
+        BreachFilter filter = build(corpus);
+        assertEquals(5_000, filter.entries());
+        for (String password : corpus) {
+            char[] chars = ("#" + password).toCharArray();
+            byte[] bytes = ("##" + password).getBytes(StandardCharsets.ISO_8859_1);
+            assertTrue(filter.mightContain(password), password);
+            assertTrue(filter.mightContain(chars, 1, password.length()), password);
+            assertTrue(filter.mightContain(bytes, 2, password.length()), password);
+        }
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateNearTheTarget() throws IOException {
+        List<String> corpus = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            corpus.add("breached-" + i);
+        }
+        BreachFilter filter = build(corpus);
+        SplittableRandom random = new SplittableRandom(1);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("clean-" + random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, falsePositives + " false positives in 100000");
+    }
+
+    @Test
+    void rejectsAHeaderWithoutHashesOrBits() throws IOException {
+        buildPins();
+        Path file = dir.resolve("corpus.bf");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0).flip(), 8);
+        }
+        IOException e = assertThrows(IOException.class, () -> BreachFilter.load(file));
+        assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(7).flip(), 8);
+            channel.write(ByteBuffer.allocate(8).putLong(0).flip(), 16);
+        }
+        assertThrows(IOException.class, () -> BreachFilter.load(file));
+    }
+
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        buildPins();
+        Path file = dir.resolve("corpus.bf");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+        assertThrows(IOException.class, () -> BreachFilter.load(file));
+    }
+
+    @Test
+    void generationNeverReturnsABreachedPassword() throws IOException {
+        BreachFilter.setActive(build(List.of("aaaa", "abab", "bbbb")));
+        PasswordEngine engine = PasswordEngine.forOptions(false, true, false, false);
+        RandomSource rng = RandomSource.create(RandomSource.Kind.SPLITTABLE, 3);
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(BreachFilter.isBreached(engine.generate(4, rng)));
+        }
+    }
+
+    @Test
+    void generationFailsWhenEveryCandidateIsBreached() throws IOException {
+        BreachFilter.setActive(buildPins());
+        PasswordEngine numbers = PasswordEngine.forOptions(false, false, true, false);
+        assertThrows(BreachFilter.RetriesExhaustedException.class, () -> numbers.generate(4));
+        byte[] batch = new byte[100_000 * 5];
+        assertThrows(BreachFilter.RetriesExhaustedException.class,
+                () -> numbers.generateBatch(batch, 0, 100_000, 4, '\n'));
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(4).classes(false, false, true, false).compile();
+        assertThrows(BreachFilter.RetriesExhaustedException.class, plan::generate);
+    }
+}
@@ -0,0 +1,222 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.Test;
+
+class DurationHistogramTest {
+
+    private static final long HOUR_NANOS = 3_600_000_000_000L;
+
+    /** An HdrHistogram V2 compressed histogram, decoded independently of the encoder. */
+    static final class Decoded {
+        final int significantDigits;
+        final long lowestDiscernibleValue;
+        final long highestTrackableValue;
+        final double conversionRatio;
+        final byte[] payload;
+        final long[] counts;
+
+        Decoded(byte[] compressed) throws DataFormatException {
+            ByteBuffer outer = ByteBuffer.wrap(compressed);
+            assertEquals(0x1c849314, outer.getInt(), "compressed cookie");
+            int deflatedLength = outer.getInt();
+            assertEquals(compressed.length - 8, deflatedLength);
+
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed, 8, deflatedLength);
+            byte[] raw = new byte[1 << 20];
+            int rawLength = inflater.inflate(raw);
+            assertTrue(inflater.finished());
+            inflater.end();
+
+            ByteBuffer header = ByteBuffer.wrap(raw, 0, rawLength);
+            assertEquals(0x1c849313, header.getInt(), "encoding cookie");
+            int payloadLength = header.getInt();
+            assertEquals(0, header.getInt(), "normalizing index offset");
+            significantDigits = header.getInt();
+            lowestDiscernibleValue = header.getLong();
+            highestTrackableValue = header.getLong();
+            conversionRatio = header.getDouble();
+            assertEquals(40, header.position());
+            assertEquals(rawLength - 40, payloadLength, "payload length");
+            payload = Arrays.copyOfRange(raw, 40, rawLength);
+
+            long[] decoded = new long[16];
+            int index = 0;
+            ByteBuffer in = ByteBuffer.wrap(payload);
+            while (in.hasRemaining()) {
+                long value = readZigZag(in);
+                int next = index + (value < 0 ? (int) -value : 1); // negative: a run of empty buckets
+                if (next > decoded.length) {
+                    decoded = Arrays.copyOf(decoded, Math.max(next, decoded.length * 2));
+                }
+                if (value > 0) {
+                    decoded[index] = value;
+                }
+                index = next;
+            }
+            counts = Arrays.copyOf(decoded, index);
+        }
+
+        // LEB128 with at most nine bytes, the ninth carrying eight bits
+        private static long readZigZag(ByteBuffer in) {
+            long v = 0;
+            int shift = 0;
+            for (int i = 0; i < 8; i++) {
+                byte b = in.get();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (v >>> 1) ^ -(v & 1);
+                }
+                shift += 7;
+            }
+            v |= (long) (in.get() & 0xFF) << 56;
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+
+    private static long[] bucketCounts(DurationHistogram histogram, int length) {
+        long[] counts = new long[length];
+        for (int i = 0; i < length; i++) {
+            counts[i] = histogram.countAt(i);
+        }
+        return counts;
+    }
+
+    @Test
+    void encodesHeaderAndZeroRunsExactly() throws DataFormatException {
+        DurationHistogram histogram = new DurationHistogram(HOUR_NANOS, 3);
+        histogram.record(1);
+        histogram.record(2_047);
+        Decoded decoded = new Decoded(histogram.encodeCompressed());
+
+        assertEquals(3, decoded.significantDigits);
+        assertEquals(1, decoded.lowestDiscernibleValue);
+        assertEquals(HOUR_NANOS, decoded.highestTrackableValue);
+        assertEquals(1.0, decoded.conversionRatio);
+        // One empty bucket as a zero count, one count of 1, a run of 2,045
+        // empty buckets (ZigZag 4089 = 0xF9 0x1F), then the count at 2,047
+        assertArrayEquals(new byte[] { 0x00, 0x02, (byte) 0xF9, 0x1F, 0x02 }, decoded.payload);
+        assertEquals(2_048, decoded.counts.length);
+    }
+
+    @Test
+    void decodedCountsMatchEveryBucketUpToTheMaximum() throws DataFormatException {
+        DurationHistogram histogram = new DurationHistogram(HOUR_NANOS, 3);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 100_000; i++) {
+            // Mostly milliseconds, with a long tail up to a minute
+            histogram.record(random.nextInt(10) == 0 ? random.nextLong(60_000_000_000L)
+                    : random.nextLong(1_000_000, 20_000_000));
+        }
+        for (int i = 0; i < 300; i++) {
+            histogram.record(1_000_000); // a count that needs two LEB128 bytes
+        }
+        Decoded decoded = new Decoded(histogram.encodeCompressed());
+        assertArrayEquals(bucketCounts(histogram, decoded.counts.length), decoded.counts);
+        assertEquals(histogram.totalCount(), Arrays.stream(decoded.counts).sum());
+        assertTrue(histogram.max() <= histogram.highestEquivalentValue(decoded.counts.length - 1));
+        assertTrue(histogram.max() >= histogram.lowestEquivalentValue(decoded.counts.length - 1));
+    }
+
+    @Test
+    void bucketBoundsKeepThreeSignificantDigits() {
+        DurationHistogram histogram = new DurationHistogram(HOUR_NANOS, 3);
+        histogram.record(1_000_000);
+        histogram.record(2_047);
+        int million = -1;
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            if (i < 2_048) {
+                // The first 2,048 values each have a bucket of their own
+                assertEquals(i, histogram.lowestEquivalentValue(i));
+                assertEquals(i, histogram.highestEquivalentValue(i));
+            } else {
+                assertEquals(histogram.highestEquivalentValue(i - 1) + 1, histogram.lowestEquivalentValue(i));
+            }
+            if (histogram.countAt(i) > 0 && i != 2_047) {
+                million = i;
+            }
+        }
+        // 1,000,000 is in [999,936, 1,000,447], a bucket 512 wide
+        assertEquals(999_936, histogram.lowestEquivalentValue(million));
+        assertEquals(1_000_447, histogram.highestEquivalentValue(million));
+        assertTrue(histogram.highestEquivalentValue(histogram.bucketCount() - 1) >= HOUR_NANOS);
+    }
+
+    @Test
+    void percentilesAreTheUpperBoundOfTheBucketHoldingTheExactValue() {
+        DurationHistogram histogram = new DurationHistogram(HOUR_NANOS, 3);
+        for (int value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(2_000, histogram.percentile(20)); // below 2,048: exact
+        assertEquals(5_003, histogram.percentile(50)); // 5,000 is in [5,000, 5,003]
+        assertEquals(9_903, histogram.percentile(99)); // 9,900 is in [9,900, 9,903]
+        assertEquals(10_000, histogram.percentile(100)); // clamped to the maximum
+
+        long[] values = new long[50_000];
+        SplittableRandom random = new SplittableRandom(9);
+        DurationHistogram wide = new DurationHistogram(HOUR_NANOS, 3);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong(HOUR_NANOS);
+            wide.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] { 1, 25, 50, 90, 99, 99.9 }) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = wide.percentile(percentile);
+            assertTrue(estimate >= exact && estimate - exact <= exact / 1_000, percentile + ": " + estimate
+                    + " vs " + exact);
+        }
+    }
+
+    @Test
+    void histogramLogHoldsTaggedIntervalsThatDecodeToTheLapHistograms() throws Exception {
+        LapStore laps = new LapStore();
+        long split = 0;
+        for (int i = 1; i <= 500; i++) {
+            split += i * 1_000_000L;
+            laps.addSplit(split);
+        }
+        StringWriter out = new StringWriter();
+        LapExport.writeHistogramLog(laps, 1_700_000_000_000L, out);
+        String[] lines = out.toString().split("\n");
+
+        assertEquals("#[Histogram log format version 1.3]", lines[0]);
+        assertTrue(lines[1].startsWith("#[StartTime: 1700000000.000 (seconds since epoch), "), lines[1]);
+        assertEquals("\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\",\"Interval_Compressed_Histogram\"",
+                lines[3]);
+        assertEquals(6, lines.length);
+        DurationHistogram[] histograms = { laps.histogram(), laps.splitHistogram() };
+        String[] tags = { "laps", "splits" };
+        for (int h = 0; h < 2; h++) {
+            String[] fields = lines[4 + h].split(",");
+            assertEquals("Tag=" + tags[h], fields[0]);
+            assertEquals("0.000", fields[1]);
+            assertEquals(String.format(Locale.ROOT, "%.3f", split / 1e9), fields[2]);
+            assertEquals(String.format(Locale.ROOT, "%.3f", histograms[h].max() / 1e6), fields[3]);
+            Decoded decoded = new Decoded(Base64.getDecoder().decode(fields[4]));
+            assertArrayEquals(bucketCounts(histograms[h], decoded.counts.length), decoded.counts);
+            assertEquals(500, Arrays.stream(decoded.counts).sum());
+            assertEquals(histograms[h].highestTrackableValue(), decoded.highestTrackableValue);
+        }
+    }
+
+    @Test
+    void emptyLogHasZeroLengthIntervals() throws IOException {
+        StringWriter out = new StringWriter();
+        LapExport.writeHistogramLog(new LapStore(), 0, out);
+        assertTrue(out.toString().contains("Tag=laps,0.000,0.000,0.000,"), out.toString());
+    }
+}
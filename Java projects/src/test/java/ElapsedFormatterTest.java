@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ElapsedFormatterTest {
+
+    private static String expected(long nanos, int fractionDigits) {
+        long seconds = Math.max(0, nanos) / 1_000_000_000L;
+        String text = String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        if (fractionDigits > 0) {
+            long fraction = Math.max(0, nanos) % 1_000_000_000L / (long) Math.pow(10, 9 - fractionDigits);
+            text += String.format(".%0" + fractionDigits + "d", fraction);
+        }
+        return text;
+    }
+
+    // The first index at which the text differs, 0 when the layout changed,
+    // or -1 when nothing changed
+    private static int firstDifference(String before, String after) {
+        if (before.length() != after.length()) {
+            return 0;
+        }
+        for (int i = 0; i < after.length(); i++) {
+            if (before.charAt(i) != after.charAt(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void matchesStringFormatAndReportsTheFirstChangedCharacter() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int digits = 0; digits <= 9; digits++) {
+            ElapsedFormatter formatter = new ElapsedFormatter(digits);
+            char[] buffer = formatter.chars();
+            String previous = "";
+            long nanos = 0;
+            for (int i = 0; i < 5_000; i++) {
+                switch (i % 4) {
+                    case 0:
+                        nanos += random.nextLong(TimeUnit.MILLISECONDS.toNanos(20)); // display ticks
+                        break;
+                    case 1:
+                        nanos += random.nextLong(TimeUnit.HOURS.toNanos(1));
+                        break;
+                    case 2:
+                        break; // unchanged
+                    default:
+                        if (random.nextInt(50) == 0) {
+                            nanos = random.nextLong(TimeUnit.HOURS.toNanos(1_000)); // restore or reset
+                        }
+                }
+                int changed = formatter.format(nanos);
+                String text = formatter.toString();
+                assertEquals(expected(nanos, digits), text);
+                assertEquals(firstDifference(previous, text), changed, previous + " -> " + text);
+                assertSame(buffer, formatter.chars());
+                previous = text;
+            }
+        }
+    }
+
+    @Test
+    void hoursWidenAndNarrowAsNeeded() {
+        ElapsedFormatter formatter = new ElapsedFormatter(3);
+        formatter.format(TimeUnit.HOURS.toNanos(99) + TimeUnit.MINUTES.toNanos(59) + TimeUnit.SECONDS.toNanos(59)
+                + 999_999_999L);
+        assertEquals("99:59:59.999", formatter.toString());
+        assertEquals(0, formatter.format(TimeUnit.HOURS.toNanos(100)));
+        assertEquals("100:00:00.000", formatter.toString());
+        assertEquals(0, formatter.format(0));
+        assertEquals("00:00:00.000", formatter.toString());
+        formatter.format(Long.MAX_VALUE);
+        assertEquals(expected(Long.MAX_VALUE, 3), formatter.toString());
+        formatter.format(-5);
+        assertEquals("00:00:00.000", formatter.toString());
+    }
+
+    @Test
+    void rejectsFractionDigitsOutsideZeroToNine() {
+        assertThrows(IllegalArgumentException.class, () -> new ElapsedFormatter(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ElapsedFormatter(10));
+    }
+}
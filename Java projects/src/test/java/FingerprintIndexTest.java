@@ -0,0 +1,35 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FingerprintIndexTest {
+
+    @Test
+    void exactModeComparesPasswordsWhenFingerprintsCollide() {
+        FingerprintIndex index = new FingerprintIndex(8);
+        String[] passwords = { "alpha", "bravo", "alpha" };
+        FingerprintIndex.Equality equality = (a, b) -> passwords[a].equals(passwords[b]);
+        long forced = 0x1234_5678_0000_0007L; // every password gets the same fingerprint
+
+        assertTrue(index.addExact(forced, 0, equality));
+        assertTrue(index.addExact(forced, 1, equality));
+        assertFalse(index.addExact(forced, 2, equality));
+        assertEquals(2, index.size());
+        // Only bravo, compared with alpha, was a collision; the second alpha
+        // matched the first one in its home slot
+        assertEquals(1, index.fingerprintCollisions());
+    }
+
+    @Test
+    void hashModeTreatsAMatchingFingerprintAsADuplicate() {
+        FingerprintIndex index = new FingerprintIndex(8);
+        assertTrue(index.addHash(42));
+        assertFalse(index.addHash(42));
+        assertTrue(index.addHash(42 + 16)); // same slot, different fingerprint
+        assertTrue(index.addHash(0));
+        assertFalse(index.addHash(1)); // 0 is stored as 1, which marks empty slots otherwise
+        assertEquals(3, index.size());
+    }
+}
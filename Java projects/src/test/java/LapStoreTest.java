@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LapStoreTest {
+
+    @Test
+    void lapsAreTheDifferencesBetweenSplits() {
+        LapStore store = new LapStore();
+        assertEquals(1_000, store.addSplit(1_000));
+        assertEquals(2_500, store.addSplit(3_500));
+        assertEquals(500, store.addSplit(4_000));
+        assertEquals(3, store.size());
+        assertEquals(3_500, store.split(1));
+        assertEquals(1_000, store.lap(0));
+        assertEquals(500, store.lap(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.lap(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.split(-1));
+    }
+
+    @Test
+    void statisticsMatchAComputationOverEveryLap() {
+        // More laps than the initial capacity, so the splits array grows
+        LapStore store = new LapStore();
+        SplittableRandom random = new SplittableRandom(11);
+        long[] laps = new long[5_000];
+        long split = 0;
+        for (int i = 0; i < laps.length; i++) {
+            laps[i] = 1_000_000 + random.nextLong(9_000_000_000L);
+            split += laps[i];
+            assertEquals(laps[i], store.addSplit(split));
+        }
+        double mean = Arrays.stream(laps).average().orElseThrow();
+        double variance = Arrays.stream(laps).mapToDouble(lap -> (lap - mean) * (lap - mean)).sum()
+                / (laps.length - 1);
+        assertEquals(Arrays.stream(laps).min().orElseThrow(), store.min());
+        assertEquals(Arrays.stream(laps).max().orElseThrow(), store.max());
+        assertEquals(mean, store.mean(), mean * 1e-12);
+        assertEquals(Math.sqrt(variance), store.standardDeviation(), Math.sqrt(variance) * 1e-9);
+        assertEquals(laps.length, store.histogram().totalCount());
+        assertEquals(split, store.splitHistogram().max(), split * 1e-3);
+
+        long[] sorted = laps.clone();
+        Arrays.sort(sorted);
+        for (double percentile : new double[] { 50, 90, 99 }) {
+            long exact = sorted[(int) Math.ceil(percentile / 100 * laps.length) - 1];
+            long estimate = store.percentile(percentile);
+            // Three significant digits
+            assertTrue(Math.abs(estimate - exact) <= exact / 1_000, percentile + ": " + estimate + " vs " + exact);
+        }
+    }
+
+    @Test
+    void clearStartsOverFromNothing() {
+        LapStore store = new LapStore();
+        for (int i = 1; i <= 2_000; i++) {
+            store.addSplit(i * 1_000L);
+        }
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.min());
+        assertEquals(0, store.max());
+        assertEquals(0.0, store.mean());
+        assertEquals(0.0, store.standardDeviation());
+        assertEquals(0, store.percentile(50));
+        assertEquals(0, store.splitHistogram().totalCount());
+        assertEquals(7_000, store.addSplit(7_000));
+        assertEquals(7_000, store.min());
+    }
+}
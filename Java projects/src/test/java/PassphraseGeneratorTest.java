@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PassphraseGeneratorTest {
+
+    private static final List<String> WORDS = List.of("apple", "brisk", "cedar", "delta", "ember", "fjord");
+
+    @TempDir
+    Path dir;
+
+    private WordList dicewareList() throws IOException {
+        // Diceware fields, tabs, CRLF, blank lines and a missing final newline
+        String text = "11111 apple\r\n11112\tbrisk\n\n11113 cedar  \n11114 delta\r\n   \n11115 ember\nfjord";
+        Path file = dir.resolve("words.txt");
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        return WordList.load(file);
+    }
+
+    @Test
+    void indexesTheLastFieldOfEveryNonBlankLine() throws IOException {
+        WordList list = dicewareList();
+        assertEquals(WORDS.size(), list.size());
+        assertEquals(5, list.maxWordLength());
+        byte[] out = new byte[8];
+        for (int i = 0; i < WORDS.size(); i++) {
+            int length = list.copyWord(i, out, 1);
+            assertEquals(WORDS.get(i), new String(out, 1, length, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void rejectsAListWithFewerThanTwoWords() throws IOException {
+        Path file = dir.resolve("one.txt");
+        Files.write(file, List.of("", "only", " "));
+        IOException e = assertThrows(IOException.class, () -> WordList.load(file));
+        assertTrue(e.getMessage().contains(file.toString()));
+    }
+
+    @Test
+    void passphrasesAreWordsFromTheListJoinedBySeparator() throws IOException {
+        PassphraseGenerator generator = new PassphraseGenerator(dicewareList(), 4, '-');
+        assertEquals(4 * Math.log(6) / Math.log(2), generator.entropyBits(), 1e-9);
+        assertEquals(23, generator.maxLength());
+        RandomSource rng = RandomSource.create(RandomSource.Kind.SPLITTABLE, 5);
+        for (int i = 0; i < 1_000; i++) {
+            String[] words = generator.generate(rng).split("-", -1);
+            assertEquals(4, words.length);
+            for (String word : words) {
+                assertTrue(WORDS.contains(word), word);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PassphraseGenerator(dicewareList(), 0, '-'));
+        assertThrows(IllegalArgumentException.class, () -> new PassphraseGenerator(dicewareList(), 3, 'é'));
+    }
+
+    @Test
+    void blockSpreadsTheCountOverChunksAndLeavesSpareChunksEmpty() throws IOException {
+        PassphraseGenerator generator = new PassphraseGenerator(dicewareList(), 3, ' ');
+        int count = PasswordEngine.CHUNK_SIZE + 10;
+        byte[][] buffers = new byte[3][generator.chunkCapacity()];
+        int[] lengths = new int[3];
+        generator.generateBlock(buffers, lengths, count, (byte) '\n', RandomSource.Kind.SPLITTABLE, 7);
+
+        assertEquals(0, lengths[2]);
+        int lines = 0;
+        for (int c = 0; c < 2; c++) {
+            String text = new String(buffers[c], 0, lengths[c], StandardCharsets.US_ASCII);
+            assertTrue(text.endsWith("\n"));
+            for (String line : text.split("\n")) {
+                assertEquals(3, line.split(" ").length, line);
+                lines++;
+            }
+        }
+        assertEquals(count, lines);
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.generateBlock(new byte[1][0], new int[1],
+                count, (byte) '\n', RandomSource.Kind.SPLITTABLE, 7));
+    }
+}
@@ -0,0 +1,45 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PasswordAuditTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void histogramMatchesScoringEveryLineOnItsOwn() throws IOException {
+        // Several megabytes, so the file is split into many fork-join tasks
+        PasswordEngine engine = PasswordEngine.forOptions(true, true, true, true);
+        RandomSource rng = RandomSource.create(RandomSource.Kind.SPLITTABLE, 17);
+        SplittableRandom shape = new SplittableRandom(17);
+        StringBuilder text = new StringBuilder();
+        long[] expected = new long[StrengthEstimator.LABELS.length];
+        for (int i = 0; i < 200_000; i++) {
+            String password = i % 50 == 0 ? "password" : engine.generate(1 + shape.nextInt(24), rng);
+            expected[StrengthEstimator.bucket(StrengthEstimator.score(password))]++;
+            text.append(password).append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 1_000 == 0) {
+                text.append('\n'); // blank lines are skipped
+            }
+        }
+        text.append("no-trailing-newline");
+        expected[StrengthEstimator.bucket(StrengthEstimator.score("no-trailing-newline"))]++;
+        Path file = dir.resolve("passwords.txt");
+        Files.write(file, text.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        assertArrayEquals(expected, PasswordAudit.audit(file));
+    }
+
+    @Test
+    void emptyFileHasAnEmptyHistogram() throws IOException {
+        Path file = Files.createFile(dir.resolve("empty.txt"));
+        assertArrayEquals(new long[StrengthEstimator.LABELS.length], PasswordAudit.audit(file));
+    }
+}
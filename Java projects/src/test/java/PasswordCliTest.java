@@ -0,0 +1,24 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PasswordCliTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "-l", "--serve", "--threads", "--concurrency", "--requests", "--min-upper",
+            "--words" })
+    void rejectsIntOptionsBeyondTheIntRangeInsteadOfWrapping(String option) {
+        // 2^32 + 16 would wrap to 16 if narrowed with a cast
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = PasswordCli.run(new String[] { option, "4294967312" },
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        assertEquals(2, status);
+        String message = err.toString(StandardCharsets.UTF_8);
+        assertTrue(message.startsWith("Error: " + option + " is too large"), message);
+    }
+}
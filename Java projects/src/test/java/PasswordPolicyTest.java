@@ -0,0 +1,96 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordPolicyTest {
+
+    private static final int SAMPLES = 2_000;
+
+    private static int count(String password, String characters) {
+        int n = 0;
+        for (int i = 0; i < password.length(); i++) {
+            if (characters.indexOf(password.charAt(i)) >= 0) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    void everyPasswordMeetsTheMinimums() {
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(10).classes(true, true, true, true)
+                .minUpper(2).minNumbers(3).minSpecial(1).compile();
+        RandomSource rng = RandomSource.create(RandomSource.Kind.SPLITTABLE, 7);
+        for (int i = 0; i < SAMPLES; i++) {
+            String password = plan.generate(rng);
+            assertEquals(10, password.length());
+            assertTrue(count(password, PasswordEngine.UPPERCASE) >= 2, password);
+            assertTrue(count(password, PasswordEngine.NUMBERS) >= 3, password);
+            assertTrue(count(password, PasswordEngine.SPECIAL) >= 1, password);
+        }
+    }
+
+    @Test
+    void aRequiredClassStaysAllowedWhicheverOrderTheBuilderUses() {
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(8).minNumbers(3)
+                .classes(false, true, false, false).compile();
+        for (int i = 0; i < SAMPLES; i++) {
+            String password = plan.generate();
+            assertTrue(count(password, PasswordEngine.NUMBERS) >= 3, password);
+            assertEquals(8, count(password, PasswordEngine.NUMBERS + PasswordEngine.LOWERCASE), password);
+        }
+    }
+
+    @Test
+    void excludedCharactersNeverAppear() {
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(24).classes(true, true, true, false)
+                .excludeAmbiguous().exclude("xyz").compile();
+        for (int i = 0; i < SAMPLES; i++) {
+            String password = plan.generate();
+            assertEquals(0, count(password, PasswordPolicy.AMBIGUOUS + "xyz"), password);
+        }
+    }
+
+    @Test
+    void noCharacterRepeatsConsecutively() {
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(32).classes(false, false, true, false)
+                .minNumbers(32).noConsecutiveRepeats().compile();
+        for (int i = 0; i < SAMPLES; i++) {
+            String password = plan.generate();
+            for (int j = 1; j < password.length(); j++) {
+                assertTrue(password.charAt(j) != password.charAt(j - 1), password);
+            }
+        }
+    }
+
+    @Test
+    void batchMatchesTheRequestedLayout() {
+        PasswordPolicy.Plan plan = new PasswordPolicy().length(6).minUpper(6).compile();
+        byte[] out = new byte[3 + 100 * 7];
+        assertEquals(700, plan.generateBatch(out, 3, 100, '\n', RandomSource.Kind.SPLITTABLE, 1));
+        for (int i = 0; i < 100; i++) {
+            int pos = 3 + i * 7;
+            assertEquals(6, count(new String(out, pos, 6), PasswordEngine.UPPERCASE));
+            assertEquals('\n', out[pos + 6]);
+        }
+    }
+
+    @Test
+    void rejectsPoliciesThatCannotBeSatisfied() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPolicy().classes(false, false, false, false).compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPolicy().length(4).minUpper(3).minNumbers(2).compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPolicy().length(0).classes(true, false, false, false).compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPolicy().classes(false, false, true, false).exclude(PasswordEngine.NUMBERS)
+                        .compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPolicy().length(4).classes(false, false, true, false).minNumbers(1)
+                        .exclude("012345678").noConsecutiveRepeats().compile());
+        assertThrows(IllegalArgumentException.class, () -> new PasswordPolicy().minUpper(-1));
+    }
+}
@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordPrefetcherTest {
+
+    private static final int CAPACITY = 64;
+
+    // Stands in for the event dispatch thread: every consumer call and every
+    // callback runs on it
+    private final ExecutorService consumer = Executors.newSingleThreadExecutor();
+    private final PasswordPrefetcher prefetcher = new PasswordPrefetcher(CAPACITY, consumer);
+
+    @AfterEach
+    void shutdown() {
+        prefetcher.shutdown();
+        consumer.shutdownNow();
+    }
+
+    private <T> T onConsumer(Callable<T> call) throws Exception {
+        return consumer.submit(call).get(10, TimeUnit.SECONDS);
+    }
+
+    private static Supplier<String> counting(String prefix, AtomicInteger calls) {
+        return () -> prefix + calls.getAndIncrement();
+    }
+
+    private static void awaitCalls(AtomicInteger calls, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (calls.get() < expected) {
+            assertTrue(System.nanoTime() < deadline, "source called " + calls.get() + " times");
+            Thread.sleep(1);
+        }
+    }
+
+    private String awaitTake() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String password;
+        while ((password = onConsumer(prefetcher::take)) == null) {
+            assertTrue(System.nanoTime() < deadline, "no password prefetched");
+            Thread.sleep(1);
+        }
+        return password;
+    }
+
+    @Test
+    void aFullRingIsServedOneSlotPerTakeInOrder() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        onConsumer(() -> {
+            prefetcher.setSource(counting("a", calls));
+            return null;
+        });
+        awaitCalls(calls, CAPACITY);
+        Thread.sleep(50);
+        assertEquals(CAPACITY, calls.get(), "producer ran past a full ring");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("a" + i, onConsumer(prefetcher::take));
+        }
+        // Each freed slot is refilled once, and the ring is full again
+        awaitCalls(calls, CAPACITY + 10);
+        Thread.sleep(50);
+        assertEquals(CAPACITY + 10, calls.get());
+    }
+
+    @Test
+    void changingTheSourceDropsEverythingPrefetchedForTheOldOne() throws Exception {
+        AtomicInteger oldCalls = new AtomicInteger();
+        onConsumer(() -> {
+            prefetcher.setSource(counting("old", oldCalls));
+            return null;
+        });
+        awaitCalls(oldCalls, CAPACITY);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger newCalls = new AtomicInteger();
+        Supplier<String> gated = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "new" + newCalls.getAndIncrement();
+        };
+        // setSource frees the stale slots itself, so take() on what was a
+        // full ring finds nothing instead of skipping CAPACITY stale entries
+        assertNull(onConsumer(() -> {
+            prefetcher.setSource(gated);
+            return prefetcher.take();
+        }));
+        release.countDown();
+        assertEquals("new0", awaitTake());
+        for (int i = 1; i < 2 * CAPACITY; i++) {
+            assertEquals("new" + i, awaitTake());
+        }
+    }
+
+    @Test
+    void aParkedRequestIsServedByTheNewSource() throws Exception {
+        CompletableFuture<String> delivered = new CompletableFuture<>();
+        onConsumer(() -> {
+            prefetcher.next(delivered::complete, delivered::completeExceptionally);
+            prefetcher.setSource(() -> "fresh");
+            return null;
+        });
+        assertEquals("fresh", delivered.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aThrowingSourceFailsRequestsUntilTheSourceChanges() throws Exception {
+        IllegalArgumentException broken = new IllegalArgumentException("No character types selected");
+        AtomicInteger calls = new AtomicInteger();
+        onConsumer(() -> {
+            prefetcher.setSource(() -> {
+                calls.incrementAndGet();
+                throw broken;
+            });
+            return null;
+        });
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<RuntimeException> failed = new CompletableFuture<>();
+            onConsumer(() -> {
+                prefetcher.next(password -> failed.completeExceptionally(new AssertionError(password)),
+                        failed::complete);
+                return null;
+            });
+            assertSame(broken, failed.get(10, TimeUnit.SECONDS));
+        }
+        // The producer waits for new settings instead of retrying the broken source
+        assertEquals(1, calls.get());
+
+        CompletableFuture<String> delivered = new CompletableFuture<>();
+        onConsumer(() -> {
+            prefetcher.setSource(() -> "works");
+            prefetcher.next(delivered::complete, delivered::completeExceptionally);
+            return null;
+        });
+        assertEquals("works", delivered.get(10, TimeUnit.SECONDS));
+    }
+}
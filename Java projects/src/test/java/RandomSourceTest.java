@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class RandomSourceTest {
+
+    // Small pools, the 16/32-bit sampling boundary and a large word list
+    private static final int[] BOUNDS = { 1, 2, 7, 10, 94, 65_535, 65_536, 65_537, 1_000_003, Integer.MAX_VALUE };
+
+    @ParameterizedTest
+    @EnumSource(RandomSource.Kind.class)
+    void indexesStayWithinTheBound(RandomSource.Kind kind) {
+        RandomSource rng = RandomSource.create(kind, 42);
+        for (int bound : BOUNDS) {
+            for (int i = 0; i < 20_000; i++) {
+                int index = rng.nextIndex(bound);
+                assertTrue(index >= 0 && index < bound, kind + ": " + index + " for bound " + bound);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(RandomSource.Kind.class)
+    void everyIndexOfASmallPoolIsDrawnAboutEqually(RandomSource.Kind kind) {
+        RandomSource rng = RandomSource.create(kind, 42);
+        int bound = 94;
+        int draws = 94_000;
+        int[] counts = new int[bound];
+        for (int i = 0; i < draws; i++) {
+            counts[rng.nextIndex(bound)]++;
+        }
+        for (int index = 0; index < bound; index++) {
+            // Expected 1000 each; 5 standard deviations either side
+            assertTrue(counts[index] > 840 && counts[index] < 1_160, kind + ": index " + index + " drawn "
+                    + counts[index] + " times");
+        }
+    }
+
+    @Test
+    void splittableSourceIsReproducibleFromItsSeed() {
+        int[] first = draw(RandomSource.create(RandomSource.Kind.SPLITTABLE, 99));
+        int[] second = draw(RandomSource.create(RandomSource.Kind.SPLITTABLE, 99));
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void perWorkerSourcesFromOneSeedAreReproducible() {
+        RandomSource[] a = PasswordEngine.randomSources(RandomSource.Kind.SPLITTABLE, 5, 4);
+        RandomSource[] b = PasswordEngine.randomSources(RandomSource.Kind.SPLITTABLE, 5, 4);
+        for (int i = 0; i < a.length; i++) {
+            assertArrayEquals(draw(a[i]), draw(b[i]));
+        }
+    }
+
+    @Test
+    void batchesAreReproducibleOnlyWhenASeededKindIsAskedFor() {
+        PasswordEngine engine = PasswordEngine.forOptions(true, true, true, false);
+        char[] a = new char[1_000 * 12];
+        char[] b = new char[1_000 * 12];
+        engine.generateBatch(a, 0, 1_000, 12, RandomSource.Kind.SPLITTABLE, 11);
+        engine.generateBatch(b, 0, 1_000, 12, RandomSource.Kind.SPLITTABLE, 11);
+        assertArrayEquals(a, b);
+        assertFalse(Arrays.equals(engine.generateBatch(1_000, 12), engine.generateBatch(1_000, 12)));
+
+        byte[] secure = new byte[1_000 * 13];
+        byte[] again = new byte[1_000 * 13];
+        assertEquals(13_000, engine.generateBatch(secure, 0, 1_000, 12, '\n'));
+        engine.generateBatch(again, 0, 1_000, 12, '\n');
+        assertFalse(Arrays.equals(secure, again));
+    }
+
+    @Test
+    void parsesKindNames() {
+        assertEquals(RandomSource.Kind.SECURE, RandomSource.Kind.parse("secure"));
+        assertEquals(RandomSource.Kind.SPLITTABLE, RandomSource.Kind.parse("Splittable"));
+        assertEquals(RandomSource.Kind.THREAD_LOCAL, RandomSource.Kind.parse("threadlocal"));
+        assertEquals(RandomSource.Kind.THREAD_LOCAL, RandomSource.Kind.parse("thread_local"));
+        assertThrows(IllegalArgumentException.class, () -> RandomSource.Kind.parse("mersenne"));
+    }
+
+    private static int[] draw(RandomSource rng) {
+        int[] values = new int[64];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rng.nextIndex(1_000);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class StopwatchCoreTest {
+
+    @Test
+    void stateEncodingAccumulatesAcrossStartsAndStops() {
+        long s = 0;
+        s = StopwatchCore.started(s, 1_000);
+        assertTrue(StopwatchCore.isRunning(s));
+        assertEquals(500, StopwatchCore.elapsed(s, 1_500));
+        s = StopwatchCore.stopped(s, 1_750);
+        assertFalse(StopwatchCore.isRunning(s));
+        assertEquals(750, StopwatchCore.elapsed(s, 9_999_999));
+        s = StopwatchCore.started(s, 10_000);
+        assertEquals(750 + 250, StopwatchCore.elapsed(s, 10_250));
+        s = StopwatchCore.stopped(s, 20_000);
+        assertEquals(750 + 10_000, StopwatchCore.elapsed(s, 0));
+    }
+
+    @Test
+    void encodingHoldsDaysOfElapsedTime() {
+        long days = TimeUnit.DAYS.toNanos(365 * 100);
+        long s = StopwatchCore.stopped(StopwatchCore.started(0, 0), days);
+        assertEquals(days, StopwatchCore.elapsed(s, 0));
+    }
+
+    @Test
+    void stoppedStopwatchKeepsItsElapsedTime() throws InterruptedException {
+        StopwatchCore core = new StopwatchCore();
+        assertEquals(0, core.elapsedNanos());
+        core.start();
+        core.start(); // already running: does not restart the origin
+        Thread.sleep(20);
+        core.stop();
+        long elapsed = core.elapsedNanos();
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(20), "elapsed " + elapsed);
+        Thread.sleep(20);
+        core.stop();
+        assertEquals(elapsed, core.elapsedNanos());
+        assertEquals(TimeUnit.NANOSECONDS.toMillis(elapsed), core.elapsed(TimeUnit.MILLISECONDS));
+
+        core.start();
+        assertTrue(core.isRunning());
+        assertTrue(core.elapsedNanos() >= elapsed);
+        core.reset();
+        assertFalse(core.isRunning());
+        assertEquals(0, core.elapsedNanos());
+    }
+
+    @Test
+    void restoreResumesFromASavedElapsedTime() {
+        StopwatchCore core = new StopwatchCore();
+        long saved = TimeUnit.HOURS.toNanos(3);
+        core.restore(saved, false);
+        assertFalse(core.isRunning());
+        assertEquals(saved, core.elapsedNanos());
+        core.restore(saved, true);
+        assertTrue(core.isRunning());
+        assertTrue(core.elapsedNanos() >= saved);
+    }
+
+    @Test
+    void concurrentTogglingKeepsTheStateConsistent() throws InterruptedException {
+        long before = System.nanoTime();
+        StopwatchCore core = new StopwatchCore();
+        AtomicBoolean outOfRange = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    if (i % 2 == 0) {
+                        core.start();
+                    } else {
+                        core.stop();
+                    }
+                    long elapsed = core.elapsedNanos();
+                    if (elapsed < 0 || elapsed > System.nanoTime() - before) {
+                        outOfRange.set(true);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(outOfRange.get(), "elapsed time outside the time the stopwatch existed");
+        core.stop();
+        long elapsed = core.elapsedNanos();
+        assertFalse(core.isRunning());
+        assertEquals(elapsed, core.elapsedNanos());
+    }
+}
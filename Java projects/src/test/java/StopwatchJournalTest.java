@@ -0,0 +1,171 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StopwatchJournalTest {
+
+    // File layout, as written by StopwatchJournal
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+
+    @TempDir
+    Path dir;
+
+    private Path file() {
+        return dir.resolve("stopwatch.journal");
+    }
+
+    private void writeStoppedSession() throws IOException {
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            journal.started(0);
+            journal.lap(1_000);
+            journal.lap(3_000);
+            journal.stopped(5_000);
+        }
+    }
+
+    private static ByteBuffer readRecord(FileChannel channel, int record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(buffer, HEADER_SIZE + (long) record * RECORD_SIZE);
+        return buffer.flip();
+    }
+
+    private static void writeRecord(FileChannel channel, int record, ByteBuffer buffer, boolean fixChecksum)
+            throws IOException {
+        if (fixChecksum) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), 0, RECORD_SIZE - 4);
+            buffer.putInt(RECORD_SIZE - 4, (int) crc.getValue());
+        }
+        channel.write(buffer.rewind(), HEADER_SIZE + (long) record * RECORD_SIZE);
+    }
+
+    @Test
+    void replaysAStoppedSession() throws IOException {
+        writeStoppedSession();
+        LapStore laps = new LapStore();
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), laps)) {
+            assertFalse(journal.recoveredRunning());
+            assertEquals(5_000, journal.recoveredElapsedNanos());
+            assertEquals(4, journal.recordsReplayed());
+            assertEquals(2, laps.size());
+            assertEquals(2_000, laps.lap(1));
+        }
+        assertEquals(HEADER_SIZE + 4 * RECORD_SIZE, Files.size(file()));
+    }
+
+    @Test
+    void aRunningTimerResumesFromItsLastStartOrLapPlusTheTimeAway() throws IOException {
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            journal.started(100);
+            journal.lap(2_000);
+        }
+        // Pretend the lap was pressed a minute ago, before the app exited
+        long away = TimeUnit.MINUTES.toMillis(1);
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer lap = readRecord(channel, 1);
+            assertEquals(StopwatchJournal.LAP, lap.get(0));
+            lap.putLong(8, System.currentTimeMillis() - away);
+            writeRecord(channel, 1, lap, true);
+        }
+        LapStore laps = new LapStore();
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), laps)) {
+            assertTrue(journal.recoveredRunning());
+            long expected = 2_000 + TimeUnit.MILLISECONDS.toNanos(away);
+            long recovered = journal.recoveredElapsedNanos();
+            assertTrue(recovered >= expected && recovered < expected + TimeUnit.SECONDS.toNanos(10),
+                    "recovered " + recovered);
+            assertEquals(1, laps.size());
+        }
+    }
+
+    @Test
+    void truncatesATornRecordAndKeepsAppending() throws IOException {
+        writeStoppedSession();
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_SIZE + 3 * RECORD_SIZE + 11); // crash mid-way through the STOP record
+        }
+        LapStore laps = new LapStore();
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), laps)) {
+            assertEquals(3, journal.recordsReplayed());
+            assertTrue(journal.recoveredRunning());
+            assertEquals(HEADER_SIZE + 3 * RECORD_SIZE, Files.size(file()));
+            journal.stopped(4_000);
+        }
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            assertEquals(4, journal.recordsReplayed());
+            assertFalse(journal.recoveredRunning());
+            assertEquals(4_000, journal.recoveredElapsedNanos());
+        }
+    }
+
+    @Test
+    void stopsAtTheFirstRecordThatFailsItsChecksum() throws IOException {
+        writeStoppedSession();
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer lap = readRecord(channel, 2);
+            lap.putLong(16, 3_001); // a flipped bit in the elapsed time
+            writeRecord(channel, 2, lap, false);
+        }
+        LapStore laps = new LapStore();
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), laps)) {
+            // START and the first LAP; the valid STOP after the corrupt record is dropped too
+            assertEquals(2, journal.recordsReplayed());
+            assertTrue(journal.recoveredRunning());
+            assertEquals(1, laps.size());
+            assertEquals(HEADER_SIZE + 2 * RECORD_SIZE, Files.size(file()));
+        }
+    }
+
+    @Test
+    void resetDiscardsTheHistory() throws IOException {
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            journal.started(0);
+            journal.lap(10);
+            journal.flush();
+            journal.reset();
+            journal.started(0);
+        }
+        LapStore laps = new LapStore();
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), laps)) {
+            assertEquals(1, journal.recordsReplayed());
+            assertEquals(0, laps.size());
+        }
+    }
+
+    @Test
+    void aSecondWriterCannotOpenALockedJournal() throws IOException {
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            journal.started(0);
+            IOException e = assertThrows(IOException.class, () -> StopwatchJournal.open(file(), new LapStore()));
+            assertTrue(e.getMessage().contains("in use"), e.getMessage());
+        }
+        // Closing releases the lock
+        try (StopwatchJournal journal = StopwatchJournal.open(file(), new LapStore())) {
+            assertEquals(1, journal.recordsReplayed());
+            journal.close();
+            assertThrows(IllegalStateException.class, () -> journal.lap(1));
+        }
+    }
+
+    @Test
+    void refusesAFileThatIsNotAJournal() throws IOException {
+        Files.write(file(), new byte[64]);
+        IOException e = assertThrows(IOException.class, () -> StopwatchJournal.open(file(), new LapStore()));
+        assertTrue(e.getMessage().contains(file().toString()), e.getMessage());
+        assertEquals(64, Files.size(file()));
+    }
+}
@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.staxtech.stopwatch.Stopwatch;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.management.JMX;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StopwatchMetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void stopwatchBeanShowsTheStopwatchAndItsPublishedLaps() throws Exception {
+        StopwatchCore core = new StopwatchCore();
+        StopwatchMetrics.StopwatchBean metrics = StopwatchMetrics.registerStopwatch(core);
+        StopwatchMXBean bean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName("StopwatchClock:type=Stopwatch,name=main"), StopwatchMXBean.class);
+
+        core.restore(7_000_000_000L, false);
+        assertFalse(bean.isRunning());
+        assertEquals(7_000_000_000L, bean.getElapsedNanos());
+        assertEquals(0, bean.getLapCount());
+
+        LapStore laps = new LapStore();
+        laps.addSplit(1_000_000);
+        laps.addSplit(4_000_000);
+        assertEquals(0, bean.getLapCount()); // nothing is read until the owner publishes
+        metrics.lapsChanged(laps);
+        assertEquals(2, bean.getLapCount());
+        assertEquals(1_000_000, bean.getLapMinNanos());
+        assertEquals(3_000_000, bean.getLapMaxNanos());
+        assertEquals(2_000_000.0, bean.getLapMeanNanos());
+
+        core.start();
+        assertTrue(bean.isRunning());
+        laps.clear();
+        metrics.lapsChanged(laps);
+        assertEquals(0, bean.getLapCount());
+        assertEquals(0, bean.getLapMaxNanos());
+    }
+
+    @Test
+    void recordingCapturesTimerSamplesStateChangesLapsAndStatistics() throws Exception {
+        Path file = dir.resolve("stopwatch.jfr");
+        StopwatchMetrics.StopwatchBean metrics = StopwatchMetrics.registerStopwatch(new StopwatchCore());
+        LapStore laps = new LapStore();
+        laps.addSplit(2_000_000);
+        metrics.lapsChanged(laps);
+        try (Recording recording = new Recording()) {
+            recording.enable("stopwatchclock.TimerSample");
+            recording.enable("stopwatchclock.StopwatchState");
+            recording.enable("stopwatchclock.Lap");
+            recording.enable("stopwatchclock.LapStatistics").withPeriod(Duration.ofMillis(50));
+            recording.enable("stopwatchclock.TimerStatistics").withPeriod(Duration.ofMillis(50));
+            recording.start();
+
+            try (Stopwatch.Sample sample = Stopwatch.start("test.jfr")) {
+                Thread.sleep(1);
+            }
+            StopwatchMetrics.stateChanged("start", 0);
+            StopwatchMetrics.lapRecorded(1, 2_000_000, 2_000_000);
+            StopwatchMetrics.stateChanged("stop", 2_500_000);
+            Thread.sleep(200);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> samples = ofType(events, "stopwatchclock.TimerSample");
+        assertEquals(1, samples.size());
+        assertEquals("test.jfr", samples.get(0).getString("timer"));
+        assertTrue(samples.get(0).getDuration().toNanos() >= 1_000_000);
+
+        List<String> actions = ofType(events, "stopwatchclock.StopwatchState").stream()
+                .map(e -> e.getString("action")).collect(Collectors.toList());
+        assertEquals(List.of("start", "stop"), actions);
+        assertEquals(2_500_000, ofType(events, "stopwatchclock.StopwatchState").get(1).getDuration("elapsed")
+                .toNanos());
+
+        List<RecordedEvent> lapEvents = ofType(events, "stopwatchclock.Lap");
+        assertEquals(1, lapEvents.size());
+        assertEquals(1, lapEvents.get(0).getInt("lap"));
+
+        RecordedEvent statistics = ofType(events, "stopwatchclock.LapStatistics").get(0);
+        assertEquals(1, statistics.getInt("laps"));
+        assertTrue(ofType(events, "stopwatchclock.TimerStatistics").stream()
+                .anyMatch(e -> "test.jfr".equals(e.getString("timer")) && e.getLong("count") >= 1));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+}
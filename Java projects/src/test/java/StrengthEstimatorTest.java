@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StrengthEstimatorTest {
+
+    private static final double LOWER_BITS = Math.log(26) / Math.log(2);
+
+    @Test
+    void settingsTableMatchesTheEntropyFormula() {
+        for (int mask = 0; mask < 16; mask++) {
+            for (int length = 0; length <= StrengthEstimator.TABLE_MAX_LENGTH + 8; length++) {
+                int expected = StrengthEstimator.scoreForBits(StrengthEstimator.bitsForSettings(length, mask));
+                assertEquals(expected, StrengthEstimator.scoreForSettings(length, mask), "mask " + mask
+                        + ", length " + length);
+            }
+        }
+        assertEquals(0, StrengthEstimator.scoreForSettings(64, 0));
+        assertEquals(100, StrengthEstimator.scoreForSettings(128, 15));
+    }
+
+    @Test
+    void creditsEachCharacterWithThePoolOfTheClassesPresent() {
+        double pool = Math.log(26 + 26 + 10 + PasswordEngine.SPECIAL.length()) / Math.log(2);
+        assertEquals(4 * pool, StrengthEstimator.entropyBits("aB3$"), 1e-9);
+        assertEquals(6 * LOWER_BITS, StrengthEstimator.entropyBits("qzmxkw"), 1e-9);
+        assertEquals(0.0, StrengthEstimator.entropyBits(""));
+    }
+
+    @Test
+    void repeatsAndRunsAreNearlyFree() {
+        // The first two characters of a run are credited in full, the rest one bit each
+        assertEquals(2 * LOWER_BITS + 4, StrengthEstimator.entropyBits("abcdef"), 1e-9);
+        assertEquals(2 * LOWER_BITS + 4, StrengthEstimator.entropyBits("zyxwvu"), 1e-9);
+        assertEquals(LOWER_BITS + 3, StrengthEstimator.entropyBits("qqqq"), 1e-9);
+    }
+
+    @Test
+    void commonPasswordsAreCappedWhateverTheirCase() {
+        assertTrue(StrengthEstimator.isCommonPassword("PassWord123"));
+        assertTrue(StrengthEstimator.isCommonPassword("trustno1"));
+        assertFalse(StrengthEstimator.isCommonPassword("trustno2"));
+        assertTrue(StrengthEstimator.entropyBits("Password123") <= 10.0);
+        assertTrue(StrengthEstimator.entropyBits("Passwore123") > 40.0);
+    }
+
+    @Test
+    void bucketsFollowTheMeterThresholds() {
+        assertEquals("Weak", StrengthEstimator.label(StrengthEstimator.MODERATE_THRESHOLD - 1));
+        assertEquals("Moderate", StrengthEstimator.label(StrengthEstimator.MODERATE_THRESHOLD));
+        assertEquals("Strong", StrengthEstimator.label(StrengthEstimator.STRONG_THRESHOLD));
+        assertEquals("Very Strong", StrengthEstimator.label(StrengthEstimator.VERY_STRONG_THRESHOLD));
+        assertEquals("Very Strong", StrengthEstimator.label(100));
+    }
+}
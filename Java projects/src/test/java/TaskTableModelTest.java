@@ -0,0 +1,173 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.swing.event.TableModelEvent;
+import org.junit.jupiter.api.Test;
+
+class TaskTableModelTest {
+
+    private final TaskTableModel model = new TaskTableModel();
+
+    // Row i has id i, priority i % 4 and is completed when i % 3 == 0
+    private void fill(int rows) {
+        for (int i = 0; i < rows; i++) {
+            model.addTask(i, "Task " + i, i % 4, i % 2 == 0 ? "work, home" : "home", i, i % 3 == 0);
+        }
+    }
+
+    private int scanCompleted() {
+        int n = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (model.isCompleted(row)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private int scanPriority(int priority) {
+        int n = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (model.priority(row) == priority) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private void assertCountersMatchTheRows() {
+        assertEquals(scanCompleted(), model.completedCount());
+        for (int priority = 0; priority < TaskTableModel.PRIORITIES.length; priority++) {
+            assertEquals(scanPriority(priority), model.priorityCount(priority));
+        }
+        int work = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (model.tags(row).contains("work")) {
+                work++;
+            }
+        }
+        assertEquals(work, model.tagCount("work"));
+        assertEquals(model.getRowCount(), model.tagCount("home"));
+    }
+
+    @Test
+    void cellsAreReadFromTheColumnsWithOneEventPerRowChange() {
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.addTask(7, "Write report", TaskTableModel.HIGH_PRIORITY, "work", 1_000L, false);
+        model.addTask(9, "Buy milk", 0, "home, errands", 2_000L, true);
+
+        assertEquals(2, model.getRowCount());
+        assertEquals("Write report", model.getValueAt(0, TaskTableModel.TASK_COLUMN));
+        assertEquals("High", model.getValueAt(0, TaskTableModel.PRIORITY_COLUMN));
+        assertEquals("home, errands", model.getValueAt(1, TaskTableModel.TAGS_COLUMN));
+        assertEquals(2_000L, model.getValueAt(1, TaskTableModel.CREATED_COLUMN));
+        assertEquals(true, model.getValueAt(1, TaskTableModel.COMPLETED_COLUMN));
+        assertEquals(Long.class, model.getColumnClass(TaskTableModel.CREATED_COLUMN));
+
+        model.setValueAt(true, 0, TaskTableModel.COMPLETED_COLUMN);
+        model.setValueAt(true, 0, TaskTableModel.COMPLETED_COLUMN); // unchanged: no event
+        model.updateTask(1, "Buy oat milk", TaskTableModel.URGENT_PRIORITY, "home");
+        model.removeTask(0);
+
+        assertEquals(9, model.id(0));
+        assertEquals("Buy oat milk", model.text(0));
+        assertEquals("Urgent", model.getValueAt(0, TaskTableModel.PRIORITY_COLUMN));
+        assertArrayEquals(new int[] { TableModelEvent.INSERT, TableModelEvent.INSERT, TableModelEvent.UPDATE,
+                TableModelEvent.UPDATE, TableModelEvent.DELETE },
+                events.stream().mapToInt(TableModelEvent::getType).toArray());
+        assertEquals(0, events.get(4).getFirstRow());
+        assertThrows(IndexOutOfBoundsException.class, () -> model.getValueAt(1, TaskTableModel.TASK_COLUMN));
+        assertThrows(IllegalArgumentException.class, () -> model.setValueAt("x", 0, TaskTableModel.TASK_COLUMN));
+    }
+
+    @Test
+    void countersFollowEveryKindOfChange() {
+        fill(200);
+        assertCountersMatchTheRows();
+        model.setCompleted(1, true);
+        model.setCompleted(0, false);
+        model.setCompleted(0, false);
+        model.updateTask(5, "Renamed", TaskTableModel.URGENT_PRIORITY, "work, home, work");
+        model.removeTask(70);
+        model.removeTask(0);
+        assertCountersMatchTheRows();
+        assertEquals(198, model.getRowCount());
+        assertEquals("Renamed", model.text(4));
+    }
+
+    @Test
+    void removeTaskShiftsLaterCompletionFlagsAcrossWordBoundaries() {
+        fill(300);
+        List<Boolean> expected = new ArrayList<>();
+        for (int row = 0; row < 300; row++) {
+            expected.add(model.isCompleted(row));
+        }
+        for (int row : new int[] { 250, 128, 64, 63, 1 }) {
+            model.removeTask(row);
+            expected.remove(row);
+        }
+        for (int row = 0; row < model.getRowCount(); row++) {
+            assertEquals(expected.get(row), model.isCompleted(row), "row " + row);
+            assertEquals("Task " + model.id(row), model.text(row));
+        }
+        assertCountersMatchTheRows();
+    }
+
+    @Test
+    void removeCompletedKeepsTheRemainingRowsInOrderWithOneEvent() {
+        fill(1_000);
+        int completed = model.completedCount();
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        assertEquals(completed, model.removeCompleted());
+
+        assertEquals(1, events.size());
+        assertEquals(1_000 - completed, model.getRowCount());
+        int previous = -1;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            int id = model.id(row);
+            assertTrue(id > previous);
+            assertTrue(id % 3 != 0, "completed task " + id + " kept");
+            assertEquals("Task " + id, model.text(row));
+            assertEquals(id % 4, model.priority(row));
+            assertEquals(id, model.createdMillis(row));
+            assertFalse(model.isCompleted(row));
+            previous = id;
+        }
+        assertEquals(0, model.completedCount());
+        assertEquals(-1, model.nextCompleted(0));
+        assertCountersMatchTheRows();
+        assertEquals(0, model.removeCompleted());
+    }
+
+    @Test
+    void completeAllChangesOnlyIncompleteRows() {
+        fill(10);
+        int incomplete = 10 - model.completedCount();
+        assertEquals(incomplete, model.completeAll());
+        assertEquals(10, model.completedCount());
+        assertEquals(-1, model.nextIncomplete(0));
+        assertEquals(0, model.completeAll());
+        assertEquals(10, model.removeCompleted());
+        assertEquals(0, model.getRowCount());
+        assertEquals(Map.of(), model.tagCounts());
+    }
+
+    @Test
+    void tagCountsListTagsInFirstSeenOrder() {
+        model.addTask(0, "a", 0, "beta, alpha", 0, false);
+        model.addTask(1, "b", 0, "alpha", 0, false);
+        model.addTask(2, "c", 0, "", 0, false);
+        assertEquals(List.of("beta", "alpha"), new ArrayList<>(model.tagCounts().keySet()));
+        assertEquals(2, model.tagCount("alpha"));
+        assertEquals(0, model.tagCount("gamma"));
+    }
+}
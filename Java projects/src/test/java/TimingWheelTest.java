@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final List<String> fired = new ArrayList<>();
+    private final TimingWheel wheel = new TimingWheel(MS, 0);
+
+    private long schedule(long deadlineMs, String name) {
+        return wheel.schedule(deadlineMs * MS, () -> fired.add(name));
+    }
+
+    @Test
+    void firesOnTheFirstAdvanceAtOrAfterTheDeadline() {
+        schedule(5, "a");
+        assertEquals(0, wheel.advance(4 * MS));
+        assertEquals(1, wheel.advance(5 * MS));
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void neverFiresEarlyForDeadlinesBetweenTicks() {
+        wheel.schedule(5 * MS + 1, () -> fired.add("a"));
+        assertEquals(0, wheel.advance(5 * MS));
+        assertEquals(1, wheel.advance(6 * MS));
+    }
+
+    @Test
+    void cascadesTimersDownFromHigherLevels() {
+        // Levels 1, 2, 3 and 4 of a 64-slot wheel
+        schedule(100, "level1");
+        schedule(5_000, "level2");
+        schedule(300_000, "level3");
+        schedule(20_000_000, "level4");
+        long[] deadlines = { 100, 5_000, 300_000, 20_000_000 };
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(0, wheel.advance((deadlines[i] - 1) * MS), "early at " + deadlines[i]);
+            assertEquals(1, wheel.advance(deadlines[i] * MS), "late at " + deadlines[i]);
+        }
+        assertEquals(List.of("level1", "level2", "level3", "level4"), fired);
+    }
+
+    @Test
+    void oneLongAdvanceFiresEverythingDueInDeadlineOrder() {
+        for (int ms = 1_000; ms > 0; ms -= 7) {
+            schedule(ms, Integer.toString(ms));
+        }
+        int pending = wheel.size();
+        assertEquals(pending, wheel.advance(1_000 * MS));
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(Integer.parseInt(fired.get(i - 1)) < Integer.parseInt(fired.get(i)));
+        }
+    }
+
+    @Test
+    void overdueTimersFireOnTheNextAdvance() {
+        wheel.advance(10 * MS);
+        schedule(3, "past");
+        schedule(10, "now");
+        assertEquals(2, wheel.size());
+        assertEquals(2, wheel.advance(10 * MS));
+        assertTrue(fired.containsAll(List.of("past", "now")));
+    }
+
+    @Test
+    void cancelRemovesAPendingTimerOnlyOnce() {
+        long handle = schedule(5, "a");
+        assertTrue(wheel.cancel(handle));
+        assertFalse(wheel.cancel(handle));
+        assertEquals(0, wheel.advance(10 * MS));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void staleHandleDoesNotCancelTheTimerReusingItsSlot() {
+        long first = schedule(1, "first");
+        wheel.advance(1 * MS);
+        long second = schedule(2, "second");
+        assertEquals((int) first, (int) second, "expected the freed id to be reused");
+        assertFalse(wheel.cancel(first));
+        assertEquals(1, wheel.advance(2 * MS));
+        assertEquals(List.of("first", "second"), fired);
+    }
+
+    @Test
+    void tasksMayScheduleFromInsideAnExpiry() {
+        wheel.schedule(1 * MS, () -> {
+            fired.add("outer");
+            schedule(1, "inner");
+        });
+        wheel.advance(1 * MS);
+        assertEquals(List.of("outer"), fired);
+        wheel.advance(1 * MS);
+        assertEquals(List.of("outer", "inner"), fired);
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        for (int i = 0; i < 1_000; i++) {
+            schedule(1 + i % 50, "t");
+        }
+        assertEquals(1_000, wheel.size());
+        assertEquals(1_000, wheel.advance(50 * MS));
+    }
+}
@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class UniqueBatchTest {
+
+    private static final PasswordEngine NUMBERS = PasswordEngine.forOptions(false, false, true, false);
+
+    @Test
+    void inMemoryBatchKeepsFirstOccurrencesAndRegeneratesRepeats() {
+        int count = 1_000;
+        char[] out = new char[count * 4];
+        for (int i = 0; i < count; i++) {
+            String.format("%04d", i % 500).getChars(0, 4, out, i * 4);
+        }
+        UniqueBatch unique = new UniqueBatch(NUMBERS, count, 4, RandomSource.Kind.SPLITTABLE, 3);
+        unique.dedupe(out, 0, count, 4);
+
+        assertTrue(unique.duplicatesRegenerated() >= 500, "regenerated " + unique.duplicatesRegenerated());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            String password = new String(out, i * 4, 4);
+            assertTrue(seen.add(password), "repeated " + password);
+            if (i < 500) {
+                assertEquals(String.format("%04d", i), password);
+            }
+        }
+    }
+
+    @Test
+    void streamedBlocksAreUniqueAcrossBlocks() {
+        int perBlock = 1_000;
+        byte[] first = new byte[perBlock * 5];
+        NUMBERS.generateBatch(first, 0, perBlock, 4, '\n', RandomSource.Kind.SPLITTABLE, 9);
+        byte[] second = first.clone();
+        UniqueBatch unique = new UniqueBatch(NUMBERS, 2 * perBlock, 4, RandomSource.Kind.SPLITTABLE, 9);
+
+        unique.dedupe(first, perBlock, 4, 5);
+        long withinFirst = unique.duplicatesRegenerated();
+        unique.dedupe(second, perBlock, 4, 5);
+
+        // Every password of the repeated block had to be regenerated
+        assertTrue(unique.duplicatesRegenerated() - withinFirst >= perBlock);
+        Set<String> seen = new HashSet<>();
+        for (byte[] block : new byte[][] { first, second }) {
+            for (int i = 0; i < perBlock; i++) {
+                assertTrue(seen.add(new String(block, i * 5, 4, StandardCharsets.US_ASCII)));
+                assertEquals('\n', block[i * 5 + 4]);
+            }
+        }
+    }
+
+    @Test
+    void refusesBatchesNearTheNumberOfDistinctPasswords() {
+        // 10,000 four-digit PINs; at most half of them may be asked for
+        assertThrows(IllegalArgumentException.class,
+                () -> new UniqueBatch(NUMBERS, 5_001, 4, RandomSource.Kind.SPLITTABLE, 1));
+        char[] out = new char[6_000 * 4];
+        assertThrows(IllegalArgumentException.class, () -> NUMBERS.generateUniqueBatch(out, 0, 6_000, 4));
+        UniqueBatch allowed = NUMBERS.generateUniqueBatch(out, 0, 5_000, 4);
+        assertTrue(allowed.indexBytes() > 0);
+    }
+}
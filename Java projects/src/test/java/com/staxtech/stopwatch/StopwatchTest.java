@@ -0,0 +1,125 @@
+package com.staxtech.stopwatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMX;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+class StopwatchTest {
+
+    @Test
+    void timersAreSharedByNameAndListedInRegistrationOrder() {
+        Stopwatch.Timer first = Stopwatch.timer("test.order.first");
+        Stopwatch.Timer second = Stopwatch.timer("test.order.second");
+        assertSame(first, Stopwatch.timer("test.order.first"));
+        int a = Stopwatch.timers().indexOf(first);
+        int b = Stopwatch.timers().indexOf(second);
+        assertTrue(a >= 0 && b == a + 1, a + ", " + b);
+        assertThrows(IllegalArgumentException.class, () -> Stopwatch.timer(""));
+        assertThrows(IllegalArgumentException.class, () -> Stopwatch.timer(null));
+    }
+
+    @Test
+    void recordsCountTotalMinAndMax() {
+        Stopwatch.Timer timer = Stopwatch.timer("test.record");
+        timer.record(30);
+        timer.record(10);
+        timer.record(20);
+        assertEquals(3, timer.count());
+        assertEquals(60, timer.totalNanos());
+        assertEquals(10, timer.minNanos());
+        assertEquals(30, timer.maxNanos());
+        assertEquals(20.0, timer.meanNanos());
+        timer.reset();
+        assertEquals(0, timer.count());
+        assertEquals(0, timer.minNanos());
+        assertEquals(0, timer.maxNanos());
+        assertEquals(0.0, timer.meanNanos());
+    }
+
+    @Test
+    void samplesTimeTheirBlockAndNest() throws InterruptedException {
+        Stopwatch.Timer outer = Stopwatch.timer("test.nested.outer");
+        Stopwatch.Timer inner = Stopwatch.timer("test.nested.inner");
+        try (Stopwatch.Sample o = Stopwatch.start("test.nested.outer")) {
+            try (Stopwatch.Sample i = Stopwatch.start("test.nested.inner")) {
+                assertNotSame(o, i);
+                Thread.sleep(5);
+            }
+            assertEquals(1, inner.count());
+            assertEquals(0, outer.count());
+        }
+        assertEquals(1, outer.count());
+        assertTrue(inner.totalNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(outer.totalNanos() >= inner.totalNanos());
+    }
+
+    @Test
+    void aClosedSampleIsReusedAndClosingTwiceRecordsOnce() {
+        Stopwatch.Timer timer = Stopwatch.timer("test.reuse");
+        Stopwatch.Sample first = Stopwatch.start("test.reuse");
+        first.close();
+        first.close();
+        assertEquals(1, timer.count());
+        try (Stopwatch.Sample second = Stopwatch.start("test.reuse")) {
+            assertSame(first, second); // pooled per thread, nothing allocated
+        }
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void runnablesAndSuppliersAreTimedEvenWhenTheyThrow() {
+        Stopwatch.Timer timer = Stopwatch.timer("test.tasks");
+        Runnable wrapped = Stopwatch.wrap("test.tasks", () -> { });
+        wrapped.run();
+        wrapped.run();
+        assertEquals("done", Stopwatch.time("test.tasks", () -> "done"));
+        assertThrows(IllegalStateException.class, () -> Stopwatch.time("test.tasks", (Runnable) () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(4, timer.count());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        Stopwatch.Timer timer = Stopwatch.timer("test.concurrent");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 50_000; i++) {
+                    try (Stopwatch.Sample s = timer.start()) {
+                        timer.record(i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Each iteration records i and the sample around it
+        assertEquals(4 * 2 * 50_000, timer.count());
+        assertTrue(timer.totalNanos() >= 4 * (50_000L * 50_001 / 2));
+        assertTrue(timer.maxNanos() >= 50_000);
+    }
+
+    @Test
+    void everyTimerIsAnMXBean() throws Exception {
+        Stopwatch.Timer timer = Stopwatch.timer("test.jmx \"quoted\"");
+        timer.record(1_500);
+        ObjectName name = new ObjectName("StopwatchClock:type=Timer,name=" + ObjectName.quote(timer.name()));
+        TimerMXBean bean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), name, TimerMXBean.class);
+        assertEquals(timer.name(), bean.getName());
+        assertEquals(1, bean.getCount());
+        assertEquals(1_500, bean.getMaxNanos());
+        bean.reset();
+        assertEquals(0, timer.count());
+    }
+}
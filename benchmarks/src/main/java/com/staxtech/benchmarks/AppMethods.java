@@ -0,0 +1,57 @@
+package com.staxtech.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Resolves the static entry points of the projects under "Java projects".
+ * Those classes live in the default package, which cannot be imported from a
+ * named package (and JMH refuses benchmarks in the default package), so the
+ * benchmarks bind to them through method handles. Handles held in static
+ * final fields are constant-folded by the JIT and inline like direct calls.
+ * The public Stopwatch API is in com.staxtech.stopwatch and is imported
+ * directly instead.
+ */
+final class AppMethods {
+
+    private AppMethods() {
+    }
+
+    static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            Class<?> owner = Class.forName(className);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            return lookup.findStatic(owner, name, MethodType.methodType(returnType, params));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot bind " + className + "." + name, e);
+        }
+    }
+
+    /**
+     * Binds an instance method; the receiver parameter is typed Object so
+     * callers can invokeExact on instances of package-private classes.
+     */
+    static MethodHandle virtualMethod(String className, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            Class<?> owner = Class.forName(className);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle handle = lookup.findVirtual(owner, name, MethodType.methodType(returnType, params));
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot bind " + className + "." + name, e);
+        }
+    }
+
+    /** Binds a constructor, returning the new instance as Object. */
+    static MethodHandle constructor(String className, Class<?>... params) {
+        try {
+            Class<?> owner = Class.forName(className);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle handle = lookup.findConstructor(owner, MethodType.methodType(void.class, params));
+            return handle.asType(handle.type().changeReturnType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot bind " + className + ".<init>", e);
+        }
+    }
+}
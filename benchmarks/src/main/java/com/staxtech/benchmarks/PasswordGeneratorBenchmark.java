@@ -0,0 +1,75 @@
+package com.staxtech.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PasswordGenerator.generatePassword across lengths and character pools, the
+ * calculatePasswordStrength scoring behind the strength meter, and entropy
+ * scoring of a generated password.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordGeneratorBenchmark {
+
+    private static final MethodHandle GENERATE = AppMethods.staticMethod("PasswordGenerator", "generatePassword",
+            String.class, int.class, boolean.class, boolean.class, boolean.class, boolean.class);
+    private static final MethodHandle STRENGTH = AppMethods.staticMethod("PasswordGenerator",
+            "calculatePasswordStrength", int.class, int.class, boolean.class, boolean.class, boolean.class,
+            boolean.class);
+    private static final MethodHandle SCORE = AppMethods.staticMethod("StrengthEstimator", "score", int.class,
+            CharSequence.class);
+
+    @Param({ "8", "16", "64", "128" })
+    public int length;
+
+    @Param({ "lower", "lower+numbers", "upper+lower+numbers", "all" })
+    public String pool;
+
+    private boolean upper, lower, numbers, special;
+    private String password;
+
+    @Setup
+    public void setup() {
+        upper = pool.contains("upper") || pool.equals("all");
+        lower = pool.contains("lower") || pool.equals("all");
+        numbers = pool.contains("numbers") || pool.equals("all");
+        special = pool.equals("all");
+        try {
+            password = (String) GENERATE.invokeExact(length, upper, lower, numbers, special);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public String generatePassword() throws Throwable {
+        return (String) GENERATE.invokeExact(length, upper, lower, numbers, special);
+    }
+
+    @Benchmark
+    public int calculatePasswordStrength() throws Throwable {
+        return (int) STRENGTH.invokeExact(length, upper, lower, numbers, special);
+    }
+
+    @Benchmark
+    public int scoreGeneratedPassword() throws Throwable {
+        return (int) SCORE.invokeExact((CharSequence) password);
+    }
+}
@@ -0,0 +1,67 @@
+package com.staxtech.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.staxtech.stopwatch.Stopwatch;
+
+/**
+ * Overhead of instrumenting code with Stopwatch timers. Each benchmark runs
+ * the same CPU-bound work of {@code tokens} Blackhole tokens, bare or inside
+ * a Stopwatch.start(name) sample; the Recording variants run in a JVM with a
+ * JFR recording started, so every sample is also committed as a
+ * stopwatchclock.TimerSample event. With tokens=0 the score is the fixed
+ * cost of one sample, which divided by the duration of the timed work gives
+ * the relative overhead. Run with -prof gc to confirm samples allocate
+ * nothing when no recording is running.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StopwatchApiBenchmark {
+
+    private static final String RECORDING = "-XX:StartFlightRecording:disk=false,maxsize=64m";
+
+    @Param({ "0", "10000", "100000" })
+    public int tokens;
+
+    @Benchmark
+    public void bare() {
+        Blackhole.consumeCPU(tokens);
+    }
+
+    @Benchmark
+    public void timed() {
+        try (Stopwatch.Sample sample = Stopwatch.start("benchmark.work")) {
+            Blackhole.consumeCPU(tokens);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = RECORDING)
+    public void bareRecording() {
+        Blackhole.consumeCPU(tokens);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = RECORDING)
+    public void timedRecording() {
+        try (Stopwatch.Sample sample = Stopwatch.start("benchmark.work")) {
+            Blackhole.consumeCPU(tokens);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.staxtech.benchmarks;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandle;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The per-tick formatting in StopwatchClock: elapsed time on every 10 ms
+ * stopwatch tick and the time of day on every clock tick. Each pair compares
+ * the original implementation, kept here as the baseline, with the current
+ * one. Run with -prof gc to compare allocation rates.
+ * The tickRepaint pair compares a full JLabel update and paint with the
+ * DigitDisplay update and a paint clipped to the cells that changed, which
+ * is the region the display asks Swing to repaint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class StopwatchClockBenchmark {
+
+    private static final MethodHandle NEW_FORMATTER = AppMethods.constructor("ElapsedFormatter", int.class);
+    private static final MethodHandle FORMAT = AppMethods.virtualMethod("ElapsedFormatter", "format",
+            int.class, long.class);
+    private static final MethodHandle NEW_DISPLAY = AppMethods.constructor("DigitDisplay", String.class,
+            Font.class);
+    private static final MethodHandle SET_TEXT = AppMethods.virtualMethod("DigitDisplay", "setText",
+            void.class, char[].class, int.class);
+    private static final MethodHandle CHARS = AppMethods.virtualMethod("ElapsedFormatter", "chars",
+            char[].class);
+    private static final MethodHandle LENGTH = AppMethods.virtualMethod("ElapsedFormatter", "length",
+            int.class);
+    private static final MethodHandle CLOCK_TEXT = AppMethods.staticMethod("StopwatchClock", "currentClockText",
+            String.class);
+
+    private Object formatter;
+    private SimpleDateFormat clockFormat;
+    private Object renderFormatter;
+    private JLabel label;
+    private JComponent display;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int cellWidth;
+    private long renderMillis = 3_723_456L;
+
+    // Advances like a running stopwatch so each call formats a different value
+    private long elapsedMillis = 3_723_456L;
+
+    @Setup
+    public void setup() throws Throwable {
+        formatter = (Object) NEW_FORMATTER.invokeExact(3);
+        clockFormat = new SimpleDateFormat("HH:mm:ss");
+
+        Font font = new Font("Monospaced", Font.BOLD, 32);
+        renderFormatter = (Object) NEW_FORMATTER.invokeExact(3);
+        label = new JLabel("00:00:00.000");
+        label.setFont(font);
+        label.setSize(label.getPreferredSize());
+        display = (JComponent) (Object) NEW_DISPLAY.invokeExact("00:00:00.000", font);
+        display.setSize(display.getPreferredSize());
+        cellWidth = display.getFontMetrics(font).charWidth('0');
+        image = new BufferedImage(label.getWidth() + display.getWidth(), label.getHeight() + display.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    /** The original updateStopwatch formatting. */
+    @Benchmark
+    public String elapsedStringFormat() {
+        elapsedMillis += 10;
+        long hours = elapsedMillis / 3600000;
+        long minutes = (elapsedMillis % 3600000) / 60000;
+        long seconds = (elapsedMillis % 60000) / 1000;
+        long millis = elapsedMillis % 1000;
+        return String.format("%02d:%02d:%02d.%03d", hours, minutes, seconds, millis);
+    }
+
+    @Benchmark
+    public int elapsedCharFormatter() throws Throwable {
+        elapsedMillis += 10;
+        return (int) FORMAT.invokeExact(formatter, elapsedMillis * 1_000_000L);
+    }
+
+    /** The original updateClock formatting. */
+    @Benchmark
+    public String clockSimpleDateFormat() {
+        return clockFormat.format(new Date());
+    }
+
+    @Benchmark
+    public String clockDateTimeFormatter() throws Throwable {
+        return (String) CLOCK_TEXT.invokeExact();
+    }
+
+    /** The original tick: a new String, JLabel.setText and a full label paint. */
+    @Benchmark
+    public void tickRepaintLabel(Blackhole blackhole) throws Throwable {
+        renderMillis += 10;
+        // The label is repainted whatever changed; the result is only consumed
+        blackhole.consume((int) FORMAT.invokeExact(renderFormatter, renderMillis * 1_000_000L));
+        label.setText(renderFormatter.toString());
+        label.paint(graphics);
+    }
+
+    @Benchmark
+    public void tickRepaintDigitDisplay() throws Throwable {
+        renderMillis += 10;
+        int changed = (int) FORMAT.invokeExact(renderFormatter, renderMillis * 1_000_000L);
+        if (changed >= 0) {
+            char[] chars = (char[]) CHARS.invokeExact(renderFormatter);
+            int length = (int) LENGTH.invokeExact(renderFormatter);
+            SET_TEXT.invokeExact((Object) display, chars, length);
+            Graphics2D g = (Graphics2D) graphics.create(changed * cellWidth, 0,
+                    display.getWidth() - changed * cellWidth, display.getHeight());
+            g.translate(-changed * cellWidth, 0);
+            display.paint(g);
+            g.dispose();
+        }
+    }
+}
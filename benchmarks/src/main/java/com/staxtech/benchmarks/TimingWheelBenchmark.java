@@ -0,0 +1,154 @@
+package com.staxtech.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Alarm scheduling in StopwatchClock: the TimingWheel against a
+ * PriorityQueue and a ScheduledThreadPoolExecutor, each holding
+ * {@code pending} alarms that are far from due.
+ * scheduleCancel adds one alarm and cancels it again, as a user setting and
+ * clearing a countdown does. tickExpire adds an alarm due on the next tick
+ * and advances one tick, which fires it. The wheel and the queue run on a
+ * virtual clock that moves one tick per tickExpire call; the executor runs
+ * on real time, so it has no tickExpire counterpart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimingWheelBenchmark {
+
+    private static final MethodHandle NEW_WHEEL = AppMethods.constructor("TimingWheel", long.class, long.class);
+    private static final MethodHandle SCHEDULE = AppMethods.virtualMethod("TimingWheel", "schedule",
+            long.class, long.class, Runnable.class);
+    private static final MethodHandle CANCEL = AppMethods.virtualMethod("TimingWheel", "cancel",
+            boolean.class, long.class);
+    private static final MethodHandle ADVANCE = AppMethods.virtualMethod("TimingWheel", "advance",
+            int.class, long.class);
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Resident alarms sit 30 to 60 days out, beyond any run's virtual clock
+    private static final long RESIDENT_MIN_NANOS = TimeUnit.DAYS.toNanos(30);
+    private static final long RESIDENT_SPAN_NANOS = TimeUnit.DAYS.toNanos(30);
+    private static final int DELAYS = 1 << 12;
+    private static final Runnable NOOP = () -> { };
+
+    @Param({ "1000", "10000", "100000" })
+    public int pending;
+
+    private Object wheel;
+    private PriorityQueue<Entry> queue;
+    private ScheduledThreadPoolExecutor executor;
+    private long now;
+    private long fired;
+    // Pre-drawn delays for scheduleCancel, among the resident alarms so a
+    // cancel finds its alarm anywhere in the queue, not always at the head
+    private final long[] delays = new long[DELAYS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        wheel = (Object) NEW_WHEEL.invokeExact(TICK_NANOS, 0L);
+        queue = new PriorityQueue<>();
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        for (int i = 0; i < pending; i++) {
+            long deadline = residentDelay(random);
+            // Resident alarms are never cancelled, so their handles are dropped
+            SCHEDULE.invoke(wheel, deadline, NOOP);
+            queue.add(new Entry(deadline, NOOP));
+            executor.schedule(NOOP, deadline, TimeUnit.NANOSECONDS);
+        }
+        for (int i = 0; i < DELAYS; i++) {
+            delays[i] = residentDelay(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean scheduleCancelWheel() throws Throwable {
+        long handle = (long) SCHEDULE.invokeExact(wheel, now + nextDelay(), NOOP);
+        return (boolean) CANCEL.invokeExact(wheel, handle);
+    }
+
+    @Benchmark
+    public boolean scheduleCancelPriorityQueue() {
+        Entry entry = new Entry(now + nextDelay(), NOOP);
+        queue.add(entry);
+        return queue.remove(entry);
+    }
+
+    @Benchmark
+    public boolean scheduleCancelExecutor() {
+        ScheduledFuture<?> future = executor.schedule(NOOP, nextDelay(), TimeUnit.NANOSECONDS);
+        return future.cancel(false);
+    }
+
+    @Benchmark
+    public int tickExpireWheel(Blackhole blackhole) throws Throwable {
+        blackhole.consume((long) SCHEDULE.invokeExact(wheel, now + TICK_NANOS, NOOP));
+        now += TICK_NANOS;
+        return (int) ADVANCE.invokeExact(wheel, now);
+    }
+
+    @Benchmark
+    public long tickExpirePriorityQueue() {
+        queue.add(new Entry(now + TICK_NANOS, NOOP));
+        now += TICK_NANOS;
+        while (!queue.isEmpty() && queue.peek().deadline <= now) {
+            queue.poll().task.run();
+            fired++;
+        }
+        return fired;
+    }
+
+    private static long residentDelay(Random random) {
+        return RESIDENT_MIN_NANOS + (long) (random.nextDouble() * RESIDENT_SPAN_NANOS);
+    }
+
+    private long nextDelay() {
+        return delays[next++ & (DELAYS - 1)];
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final long deadline;
+        final Runnable task;
+
+        Entry(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+}
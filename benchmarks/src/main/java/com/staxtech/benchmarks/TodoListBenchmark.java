@@ -0,0 +1,91 @@
+package com.staxtech.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.table.TableModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TaskTableModel's maintained completed-task count, read by
+ * TodoListApp.updateStatusLabel, and its single-pass removeCompleted behind
+ * deleteCompletedTasks. Half of the tasks are completed, alternating, which
+ * is the worst case for removal: every remaining row moves on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoListBenchmark {
+
+    // TaskTableModel is package-private, so handles take and return it as Object
+    private static final MethodHandle NEW_MODEL = AppMethods.constructor("TaskTableModel");
+    private static final MethodHandle COMPLETED_COUNT = AppMethods.virtualMethod("TaskTableModel", "completedCount",
+            int.class);
+    private static final MethodHandle REMOVE_COMPLETED = AppMethods.virtualMethod("TaskTableModel", "removeCompleted",
+            int.class);
+    private static final MethodHandle ADD_TASK = AppMethods.virtualMethod("TaskTableModel", "addTask", int.class,
+            int.class, String.class, int.class, String.class, long.class, boolean.class)
+            .asType(MethodType.methodType(void.class, Object.class, int.class, String.class, int.class, String.class,
+                    long.class, boolean.class));
+
+    static TableModel populate(int rows) throws Throwable {
+        Object model = (Object) NEW_MODEL.invokeExact();
+        for (int i = 0; i < rows; i++) {
+            // Every other task completed
+            ADD_TASK.invokeExact(model, i, "Task " + i, i & 3, "tag" + (i % 10), 0L, (i & 1) == 0);
+        }
+        return (TableModel) model;
+    }
+
+    @State(Scope.Benchmark)
+    public static class CountState {
+        @Param({ "1000", "100000" })
+        public int rows;
+
+        TableModel model;
+
+        @Setup
+        public void setup() throws Throwable {
+            model = populate(rows);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeleteState {
+        @Param({ "1000", "10000", "1000000" })
+        public int rows;
+
+        TableModel model;
+
+        // Deleting is destructive, so every invocation needs a fresh table
+        @Setup(Level.Invocation)
+        public void setup() throws Throwable {
+            model = populate(rows);
+        }
+    }
+
+    @Benchmark
+    public int completedCount(CountState state) throws Throwable {
+        return (int) COMPLETED_COUNT.invokeExact((Object) state.model);
+    }
+
+    @Benchmark
+    public int deleteCompletedTasks(DeleteState state) throws Throwable {
+        return (int) REMOVE_COMPLETED.invokeExact((Object) state.model);
+    }
+}